@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * Tasks submitted from different threads must run one at a time and see each other's plain writes
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@JCStressTest
+@Description("Mailbox tasks submitted concurrently are serialized")
+@Outcome(id = "2, 1", expect = ACCEPTABLE, desc = "Both tasks ran, never overlapping")
+@Outcome(id = "1, .*", expect = FORBIDDEN, desc = "Lost update, a task did not see the other's write")
+@Outcome(id = "2, 2", expect = FORBIDDEN, desc = "Tasks ran in parallel")
+@Outcome(expect = FORBIDDEN, desc = "Anything else")
+@State
+@NonNullByDefault
+public class SecuyouMailboxStressTest {
+
+    private final SecuyouMailbox mailbox = new SecuyouMailbox(SecuyouStressSupport.POOL, "stress");
+
+    // Deliberately plain fields, the mailbox is the only thing making this safe
+    private int counter;
+    private int active;
+    private int maxActive;
+
+    private void task() {
+        active++;
+        if (active > maxActive) {
+            maxActive = active;
+        }
+        counter++;
+        active--;
+    }
+
+    @Actor
+    public void actor1() {
+        mailbox.execute(this::task);
+    }
+
+    @Actor
+    public void actor2() {
+        mailbox.execute(this::task);
+    }
+
+    @Arbiter
+    public void arbiter(II_Result r) {
+        SecuyouStressSupport.awaitProcessed(mailbox, 2);
+        r.r1 = counter;
+        r.r2 = maxActive;
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+import java.util.concurrent.Executors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.bluetooth.BluetoothCharacteristic;
+import org.openhab.binding.bluetooth.BluetoothDevice;
+import org.openhab.binding.bluetooth.notification.BluetoothConnectionStatusNotification;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+import org.openhab.core.types.RefreshType;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * Binding callbacks arrive on adapter, event bus and scheduler threads at the same time. Everything is funneled
+ * through the handler's mailbox, so the outcome must always be one of the serial orderings. The keep-alive poll runs
+ * the same refreshStatus path as a REFRESH command.
+ *
+ * Results are lock position (1 = LOCKED, -1 = UNKNOWN after a reset, 0 = other) and the number of mailbox tasks that
+ * failed with an exception.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@JCStressTest
+@Description("Status notification, reconnect, lock command and refresh racing on one handler")
+@Outcome(id = "1, 0", expect = ACCEPTABLE, desc = "Reconnect reset happened before the notification")
+@Outcome(id = "-1, 0", expect = ACCEPTABLE, desc = "Notification applied, then wiped by the reconnect reset")
+@Outcome(expect = FORBIDDEN, desc = "Torn state or a task failed")
+@State
+@NonNullByDefault
+public class SecuyouSmartLockHandlerStressTest {
+
+    private static final Thing THING = mock(Thing.class, withSettings().stubOnly());
+    private static final ThingHandlerCallback CALLBACK = mock(ThingHandlerCallback.class, withSettings().stubOnly());
+    private static final BluetoothDevice DEVICE = mock(BluetoothDevice.class, withSettings().stubOnly());
+    private static final SecuyouPollCoordinator POLL_COORDINATOR = new SecuyouPollCoordinator(
+            Executors.newSingleThreadScheduledExecutor());
+    private static final SecuyouOutageCoordinator OUTAGE_COORDINATOR = new SecuyouOutageCoordinator(
+            Executors.newSingleThreadScheduledExecutor(), new SecuyouFleetRegistry());
+    private static final SecuyouGattScheduler GATT_SCHEDULER = new SecuyouGattScheduler(
+            Executors.newSingleThreadScheduledExecutor());
+    private static final ThingUID THING_UID = new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "stress");
+    private static final ChannelUID LOCK_CHANNEL = new ChannelUID(THING_UID, SecuyouBindingConstants.CHANNEL_ID_LOCK);
+    private static final BluetoothCharacteristic LOCK_STATUS = new BluetoothCharacteristic(
+            SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC, 0);
+
+    static {
+        when(THING.getUID()).thenReturn(THING_UID);
+        when(DEVICE.getConnectionState()).thenReturn(BluetoothDevice.ConnectionState.CONNECTED);
+    }
+
+    /**
+     * Handler with a stub device instead of one resolved through the adapter
+     */
+    static class StubDeviceHandler extends SecuyouSmartLockHandler {
+        StubDeviceHandler() {
+            super(THING, new SecuyouFleetRegistry(), POLL_COORDINATOR, OUTAGE_COORDINATOR, GATT_SCHEDULER);
+            this.device = DEVICE;
+            setCallback(CALLBACK);
+        }
+    }
+
+    private final StubDeviceHandler handler = new StubDeviceHandler();
+
+    @Actor
+    public void notification() {
+        handler.onCharacteristicUpdate(LOCK_STATUS, SecuyouStressSupport.LOCKED_HANDLE_OPEN);
+    }
+
+    @Actor
+    public void reconnect() {
+        handler.onConnectionStateChange(
+                new BluetoothConnectionStatusNotification(BluetoothDevice.ConnectionState.CONNECTED));
+    }
+
+    @Actor
+    public void command() {
+        // Not authenticated, so ignored, but it still reads the state concurrently with the others
+        handler.handleCommand(LOCK_CHANNEL, OnOffType.ON);
+    }
+
+    @Actor
+    public void keepAlive() {
+        handler.handleCommand(LOCK_CHANNEL, RefreshType.REFRESH);
+    }
+
+    @Arbiter
+    public void arbiter(II_Result r) {
+        SecuyouMailbox mailbox = handler.getMailbox();
+        SecuyouStressSupport.awaitProcessed(mailbox, 4);
+        switch (handler.getLockState().getLockPosition()) {
+            case LOCKED:
+                r.r1 = 1;
+                break;
+            case UNKNOWN:
+                r.r1 = -1;
+                break;
+            default:
+                r.r1 = 0;
+        }
+        r.r2 = (int) mailbox.getFailedCount();
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Shared plumbing for the jcstress tests. Mailboxes run on a multi threaded pool like the shared thing handler pool,
+ * so that consecutive drains of one mailbox may land on different threads.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public final class SecuyouStressSupport {
+
+    public static final ExecutorService POOL = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "secuyou-stress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // LOCK POSITION - PINCODE_CORRECT - BATTERY - HANDLE_POS - HOMELOCK/RESCUE
+    public static final byte[] LOCKED_HANDLE_OPEN = { 1, 16, 0, 2, 1 };
+    public static final byte[] UNLOCKED_HANDLE_CLOSED = { 0, 16, 0, 1, 1 };
+
+    private SecuyouStressSupport() {
+    }
+
+    /**
+     * Spin until the mailbox has processed the given number of tasks. Reading the processed count gives the arbiter
+     * a happens-before edge to everything the tasks wrote.
+     */
+    public static void awaitProcessed(SecuyouMailbox mailbox, long tasks) {
+        while (mailbox.getProcessedCount() < tasks) {
+            Thread.onSpinWait();
+        }
+    }
+}
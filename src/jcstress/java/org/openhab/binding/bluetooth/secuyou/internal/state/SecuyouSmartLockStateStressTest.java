@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal.state;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouMailbox;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouStressSupport;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * {@link SecuyouSmartLockState} is not thread safe by design, it relies on being confined to the handler's mailbox.
+ * Results are lock position (1 = LOCKED, 0 = UNLOCKED, -1 = other) and handle (1 = OPEN, 0 = CLOSED, -1 = other).
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouSmartLockStateStressTest {
+
+    static int position(SecuyouSmartLockState state) {
+        switch (state.getLockPosition()) {
+            case LOCKED:
+                return 1;
+            case UNLOCKED:
+                return 0;
+            default:
+                return -1;
+        }
+    }
+
+    static int handle(SecuyouSmartLockState state) {
+        switch (state.getHandleState()) {
+            case OPEN:
+                return 1;
+            case CLOSED:
+                return 0;
+            default:
+                return -1;
+        }
+    }
+
+    @JCStressTest
+    @Description("Two status frames applied through the mailbox are never mixed")
+    @Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "Unlocked frame first, then locked frame")
+    @Outcome(id = "0, 0", expect = ACCEPTABLE, desc = "Locked frame first, then unlocked frame")
+    @Outcome(expect = FORBIDDEN, desc = "Torn state, fields from both frames")
+    @State
+    public static class Confined {
+        private final SecuyouMailbox mailbox = new SecuyouMailbox(SecuyouStressSupport.POOL, "stress");
+        private final SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+
+        @Actor
+        public void notification() {
+            mailbox.execute(() -> state.setLockStatus(SecuyouStressSupport.LOCKED_HANDLE_OPEN));
+        }
+
+        @Actor
+        public void keepAliveRead() {
+            mailbox.execute(() -> state.setLockStatus(SecuyouStressSupport.UNLOCKED_HANDLE_CLOSED));
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            SecuyouStressSupport.awaitProcessed(mailbox, 2);
+            r.r1 = position(state);
+            r.r2 = handle(state);
+        }
+    }
+
+    @JCStressTest
+    @Description("A reconnect reset racing a status frame, both through the mailbox")
+    @Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "Reset first, then the frame")
+    @Outcome(id = "-1, -1", expect = ACCEPTABLE, desc = "Frame first, then reset back to UNKNOWN")
+    @Outcome(expect = FORBIDDEN, desc = "Partially reset state")
+    @State
+    public static class ConfinedReset {
+        private final SecuyouMailbox mailbox = new SecuyouMailbox(SecuyouStressSupport.POOL, "stress");
+        private final SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+
+        @Actor
+        public void notification() {
+            mailbox.execute(() -> state.setLockStatus(SecuyouStressSupport.LOCKED_HANDLE_OPEN));
+        }
+
+        @Actor
+        public void reconnect() {
+            mailbox.execute(() -> state.reset(false));
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            SecuyouStressSupport.awaitProcessed(mailbox, 2);
+            r.r1 = position(state);
+            r.r2 = handle(state);
+        }
+    }
+
+    @JCStressTest
+    @Description("Documents why the state is confined: applying frames from two threads directly can tear")
+    @Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "Locked frame won")
+    @Outcome(id = "0, 0", expect = ACCEPTABLE, desc = "Unlocked frame won")
+    @Outcome(id = { "1, 0", "0, 1" }, expect = ACCEPTABLE_INTERESTING, desc = "Torn state, keep it on the mailbox")
+    @Outcome(expect = FORBIDDEN, desc = "Anything else")
+    @State
+    public static class Unconfined {
+        private final SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+
+        @Actor
+        public void notification() {
+            state.setLockStatus(SecuyouStressSupport.LOCKED_HANDLE_OPEN);
+        }
+
+        @Actor
+        public void keepAliveRead() {
+            state.setLockStatus(SecuyouStressSupport.UNLOCKED_HANDLE_CLOSED);
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            r.r1 = position(state);
+            r.r2 = handle(state);
+        }
+    }
+}
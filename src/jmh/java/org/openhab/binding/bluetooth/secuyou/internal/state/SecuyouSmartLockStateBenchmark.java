@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal.state;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per frame cost of the status frame parser. Long frames and truncated frames should cost the same as a frame of
+ * minimum length, the parser only looks at fixed offsets and counts malformed frames instead of throwing.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecuyouSmartLockStateBenchmark {
+
+    @Param({ "minimum", "long", "truncated" })
+    public String frameKind = "minimum";
+
+    private SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+    private byte[] frame = new byte[0];
+
+    @Setup
+    public void setUp() {
+        byte[] sample = SecuyouSmartLockStateTest.sampleFrame(1);
+        switch (frameKind) {
+            case "long":
+                frame = Arrays.copyOf(sample, 4096);
+                break;
+            case "truncated":
+                frame = Arrays.copyOf(sample, 2);
+                break;
+            default:
+                frame = Arrays.copyOf(sample, SecuyouSmartLockState.LOCK_STATUS_MIN_LENGTH);
+                break;
+        }
+        state = new SecuyouSmartLockState(false);
+    }
+
+    @Benchmark
+    public boolean parseStatusFrame() {
+        return state.setLockStatus(frame);
+    }
+}
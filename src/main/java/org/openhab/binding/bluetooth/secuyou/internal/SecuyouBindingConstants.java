@@ -32,13 +32,27 @@ public class SecuyouBindingConstants {
     public static final ThingTypeUID THING_TYPE_SMART_LOCK = new ThingTypeUID(BluetoothBindingConstants.BINDING_ID,
             "secuyou_smart_lock");
 
-    public static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Set.of(THING_TYPE_SMART_LOCK);
+    public static final ThingTypeUID THING_TYPE_FLEET = new ThingTypeUID(BluetoothBindingConstants.BINDING_ID,
+            "secuyou_fleet");
+
+    public static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Set.of(THING_TYPE_SMART_LOCK, THING_TYPE_FLEET);
 
     // Channel IDs
     public static final String CHANNEL_ID_HANDLE_POSITION = "handle_position";
     public static final String CHANNEL_ID_LOCK = "lock";
     public static final String CHANNEL_ID_BATTERY = "battery";
     public static final String CHANNEL_ID_HOMELOCK = "home_lock";
+    public static final String CHANNEL_ID_STALE = "stale";
+    public static final String CHANNEL_ID_STATUS_GAPS = "status_gaps";
+    public static final String CHANNEL_ID_EVENT = "event";
+
+    // Fleet channel IDs
+    public static final String CHANNEL_ID_ALL_LOCKED = "all_locked";
+    public static final String CHANNEL_ID_LOCK_COUNT = "lock_count";
+    public static final String CHANNEL_ID_LOCKED_COUNT = "locked_count";
+    public static final String CHANNEL_ID_OPEN_HANDLES = "open_handles";
+    public static final String CHANNEL_ID_LOWEST_BATTERY = "lowest_battery";
+    public static final String CHANNEL_ID_LOWEST_BATTERY_LOCK = "lowest_battery_lock";
 
     public static final byte[] CMD_TOGGLE_LOCK = { 1 };
     public static final byte[] CMD_TOGGLE_HOME_LOCK = { -1 };
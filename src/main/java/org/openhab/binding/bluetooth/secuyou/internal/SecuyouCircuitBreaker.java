@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link SecuyouCircuitBreaker} keeps a lock that cannot be talked to (wrong pin/key or unsupported firmware) from
+ * going through the full handshake on every reconnect. Once tripped, handshake attempts are refused until an
+ * exponentially growing backoff has expired. A configuration change re-initializes the handler and resets the breaker.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouCircuitBreaker {
+
+    public enum Reason {
+        AUTHENTICATION_FAILED("lock rejected pin code/encryption key"),
+        MISSING_CHARACTERISTICS("unsupported device or firmware (gatt characteristics missing)");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+    }
+
+    static final int MISSING_CHARACTERISTICS_THRESHOLD = 3;
+    static final int AUTHENTICATION_FAILURE_THRESHOLD = 3;
+    static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+    static final Duration MAX_BACKOFF = Duration.ofHours(6);
+
+    private @Nullable Reason reason;
+    private int trips;
+    private int consecutiveMissingCharacteristics;
+    private int consecutiveAuthenticationFailures;
+    private Instant openUntil = Instant.EPOCH;
+
+    public synchronized void reset() {
+        reason = null;
+        trips = 0;
+        consecutiveMissingCharacteristics = 0;
+        consecutiveAuthenticationFailures = 0;
+        openUntil = Instant.EPOCH;
+    }
+
+    /**
+     * Lock reported that the pin code was not accepted. A single report may come from a corrupt frame, so the breaker
+     * only trips after {@link #AUTHENTICATION_FAILURE_THRESHOLD} failures without a successful authentication in
+     * between. Once tripped, the first failure after the backoff trips it again.
+     *
+     * @return true if the breaker tripped
+     */
+    public synchronized boolean recordAuthenticationFailure(Instant now) {
+        consecutiveAuthenticationFailures++;
+        if (reason != null || consecutiveAuthenticationFailures >= AUTHENTICATION_FAILURE_THRESHOLD) {
+            trip(Reason.AUTHENTICATION_FAILED, now);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Expected services or characteristics were not found. A single miss may be a flaky service discovery, so the
+     * breaker only trips after {@link #MISSING_CHARACTERISTICS_THRESHOLD} misses in a row. Once tripped, the first miss
+     * after the backoff trips it again.
+     *
+     * @return true if the breaker tripped
+     */
+    public synchronized boolean recordMissingCharacteristics(Instant now) {
+        consecutiveMissingCharacteristics++;
+        if (reason != null || consecutiveMissingCharacteristics >= MISSING_CHARACTERISTICS_THRESHOLD) {
+            trip(Reason.MISSING_CHARACTERISTICS, now);
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void recordCharacteristicsFound() {
+        consecutiveMissingCharacteristics = 0;
+    }
+
+    /**
+     * Successfully authenticated, close the breaker and forget earlier trips.
+     */
+    public synchronized void recordAuthenticated() {
+        reset();
+    }
+
+    /**
+     * @return true if a handshake may be attempted; also true once the backoff has expired (half open)
+     */
+    public synchronized boolean allowAttempt(Instant now) {
+        return reason == null || !now.isBefore(openUntil);
+    }
+
+    /**
+     * @return true while the backoff runs, no connection should be attempted
+     */
+    public synchronized boolean isBackingOff(Instant now) {
+        return reason != null && now.isBefore(openUntil);
+    }
+
+    /**
+     * @return when the backoff expires and the next handshake may be attempted
+     */
+    public synchronized Instant getNextAttempt() {
+        return openUntil;
+    }
+
+    public synchronized boolean isOpen() {
+        return reason != null;
+    }
+
+    public synchronized @Nullable Reason getReason() {
+        return reason;
+    }
+
+    public synchronized String describe(Instant now) {
+        Reason currentReason = reason;
+        if (currentReason == null) {
+            return "Circuit breaker closed";
+        }
+        long secondsLeft = Math.max(0, Duration.between(now, openUntil).getSeconds());
+        return String.format("Circuit breaker open: %s, next attempt in %ds (trip #%d)", currentReason.description,
+                secondsLeft, trips);
+    }
+
+    private void trip(Reason newReason, Instant now) {
+        reason = newReason;
+        trips++;
+        consecutiveMissingCharacteristics = 0;
+        consecutiveAuthenticationFailures = 0;
+        openUntil = now.plus(backoff(trips));
+    }
+
+    static Duration backoff(int trips) {
+        int shift = Math.min(Math.max(trips - 1, 0), 20);
+        Duration backoff = INITIAL_BACKOFF.multipliedBy(1L << shift);
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+}
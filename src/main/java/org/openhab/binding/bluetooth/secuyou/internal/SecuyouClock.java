@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Time source of the handler and coordinators, so that their timing can be run in virtual time by tests. Monotonic
+ * nanos are used for durations, the instant for wall clock state such as backoffs and snapshots.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public interface SecuyouClock {
+
+    SecuyouClock SYSTEM = new SecuyouClock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.now();
+        }
+    };
+
+    long nanoTime();
+
+    Instant instant();
+}
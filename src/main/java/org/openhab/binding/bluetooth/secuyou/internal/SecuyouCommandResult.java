@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+/**
+ * Outcome of a command that waits for the lock to confirm it with a status frame
+ *
+ * @author Arne Seime - Initial contribution
+ */
+public enum SecuyouCommandResult {
+    /**
+     * The lock reported the requested position
+     */
+    CONFIRMED,
+    /**
+     * The lock already was in the requested position, nothing was sent
+     */
+    ALREADY_IN_POSITION,
+    /**
+     * No confirming status frame within the timeout
+     */
+    TIMEOUT,
+    /**
+     * The command could not be written to the lock
+     */
+    FAILED,
+    /**
+     * The bolt is moving, the outcome of a toggle would be unpredictable
+     */
+    BUSY,
+    /**
+     * The lock has not reported a position, a toggle could move the bolt either way
+     */
+    UNKNOWN_POSITION,
+    /**
+     * Read only mode or handshake not completed
+     */
+    NOT_AUTHENTICATED,
+    /**
+     * The connection was lost while waiting
+     */
+    DISCONNECTED
+}
@@ -33,10 +33,15 @@ public class SecuyouConfiguration {
 
     public boolean treatLockingInProgressAsLocked = false;
 
+    public int lockSettleMillis = 5000;
+
+    public int autoLockOnHandleCloseMillis = -1;
+
     @Override
     public String toString() {
         return "SecuyouConfiguration{" + "address='" + address + '\'' + ", attemptLockRescue=" + attemptLockRescue
                 + ", encryptionKey='<hidden>'" + ", keepAliveSeconds=" + keepAliveSeconds + ", pinCode='<hidden>'"
-                + ", treatLockingInProgressAsLocked=" + treatLockingInProgressAsLocked + '}';
+                + ", treatLockingInProgressAsLocked=" + treatLockingInProgressAsLocked + ", lockSettleMillis="
+                + lockSettleMillis + ", autoLockOnHandleCloseMillis=" + autoLockOnHandleCloseMillis + '}';
     }
 }
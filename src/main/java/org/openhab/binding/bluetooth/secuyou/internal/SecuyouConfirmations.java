@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+
+/**
+ * The {@link SecuyouConfirmations} keeps track of callers waiting for a status frame from the lock. Not thread safe,
+ * only used from the handler's mailbox; the futures complete with {@link SecuyouCommandResult#TIMEOUT} from the
+ * handler's timer.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+class SecuyouConfirmations {
+
+    private static class Pending {
+        final @Nullable LockingMechanismPosition target;
+        final CompletableFuture<SecuyouCommandResult> future;
+
+        Pending(@Nullable LockingMechanismPosition target, CompletableFuture<SecuyouCommandResult> future) {
+            this.target = target;
+            this.future = future;
+        }
+    }
+
+    private final List<Pending> pending = new ArrayList<>(1);
+    private final ScheduledExecutorService timer;
+
+    SecuyouConfirmations(ScheduledExecutorService timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * @param target position that confirms, or null to complete on the next status frame
+     */
+    CompletableFuture<SecuyouCommandResult> await(@Nullable LockingMechanismPosition target, Duration timeout) {
+        CompletableFuture<SecuyouCommandResult> future = new CompletableFuture<>();
+        ScheduledFuture<?> timeoutJob = timer.schedule(() -> future.complete(SecuyouCommandResult.TIMEOUT),
+                timeout.toMillis(), TimeUnit.MILLISECONDS);
+        future.whenComplete((result, ex) -> timeoutJob.cancel(false));
+        pending.add(new Pending(target, future));
+        return future;
+    }
+
+    /**
+     * A status frame has been processed and published
+     */
+    void onStatus(LockingMechanismPosition position) {
+        for (Iterator<Pending> iterator = pending.iterator(); iterator.hasNext();) {
+            Pending next = iterator.next();
+            if (next.future.isDone()) {
+                iterator.remove();
+            } else if (next.target == null || next.target == position) {
+                next.future.complete(SecuyouCommandResult.CONFIRMED);
+                iterator.remove();
+            }
+        }
+    }
+
+    void failAll(SecuyouCommandResult result) {
+        for (Pending next : pending) {
+            next.future.complete(result);
+        }
+        pending.clear();
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+}
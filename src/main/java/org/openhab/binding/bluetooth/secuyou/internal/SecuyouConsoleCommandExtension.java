@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingRegistry;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingHandler;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link SecuyouConsoleCommandExtension} shows the live state of all Secuyou locks and adapters on the Karaf
+ * console, and probes a single lock on demand. Nothing needs to be restarted and no debug logging is involved.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class SecuyouConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_LIST = "list";
+    private static final String SUBCMD_ADAPTERS = "adapters";
+    private static final String SUBCMD_PROBE = "probe";
+
+    private static final int MAX_PROBES = 20;
+    private static final long DIAGNOSTICS_TIMEOUT_SECONDS = 5;
+    private static final long PROBE_TIMEOUT_SECONDS = 35;
+
+    private final ThingRegistry thingRegistry;
+
+    @Activate
+    public SecuyouConsoleCommandExtension(final @Reference ThingRegistry thingRegistry) {
+        super("secuyou", "Inspect Secuyou locks and adapters.");
+        this.thingRegistry = thingRegistry;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 0) {
+            printUsage(console);
+            return;
+        }
+        switch (args[0]) {
+            case SUBCMD_LIST:
+                list(console);
+                break;
+            case SUBCMD_ADAPTERS:
+                adapters(console);
+                break;
+            case SUBCMD_PROBE:
+                if (args.length < 2) {
+                    printUsage(console);
+                    return;
+                }
+                int count = 1;
+                if (args.length > 2) {
+                    try {
+                        count = Math.max(1, Math.min(MAX_PROBES, Integer.parseInt(args[2])));
+                    } catch (NumberFormatException e) {
+                        console.println("Not a number: " + args[2]);
+                        return;
+                    }
+                }
+                probe(console, args[1], count);
+                break;
+            default:
+                console.println("Unknown command '" + args[0] + "'");
+                printUsage(console);
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(SUBCMD_LIST, "connection, handshake and GATT latency of every lock"),
+                buildCommandUsage(SUBCMD_ADAPTERS, "GATT queue and poll windows of every adapter"),
+                buildCommandUsage(SUBCMD_PROBE + " <thingUID> [count]",
+                        "time status reads of a lock, up to " + MAX_PROBES));
+    }
+
+    private void list(Console console) {
+        List<SecuyouLockDiagnostics> locks = collect(console);
+        if (locks.isEmpty()) {
+            console.println("No Secuyou locks");
+            return;
+        }
+        for (SecuyouLockDiagnostics lock : locks) {
+            console.println(lock.getLock() + " via " + lock.getAdapter());
+            console.println("  connection: " + (lock.isConnected() ? "connected" : "disconnected") + ", "
+                    + lock.getDeviceState() + "/" + lock.getAuthenticationState() + ", " + lock.getPosition());
+            console.println("  frames: " + lock.getStatusFrames() + ", last "
+                    + (lock.getLastFrameAgeMillis() < 0 ? "never" : formatAge(lock.getLastFrameAgeMillis()))
+                    + ", " + lock.getStatusGaps() + " session gaps, " + lock.getSuppressedTransitions()
+                    + " transient positions held back, " + lock.getSkippedPolls() + " polls skipped");
+            console.println("  mailbox: " + lock.getMailbox());
+            console.println("  gatt: " + lock.getGattLatency() + ", srtt=" + lock.getSrttMillis() + "ms, rto="
+                    + lock.getRtoMillis() + "ms");
+            console.println("  motor: " + lock.getMotor());
+            if (lock.getMaxAutoLockReactionMicros() >= 0) {
+                console.println("  auto lock: last " + lock.getLastAutoLockReactionMicros() / 1000 + "ms, max "
+                        + lock.getMaxAutoLockReactionMicros() / 1000 + "ms from handle closed to acknowledged");
+            }
+            console.println("  handshake: " + lock.getStartupTimeline());
+        }
+    }
+
+    private void adapters(Console console) {
+        Map<String, SecuyouLockDiagnostics> adapters = new TreeMap<>();
+        Map<String, Integer> lockCounts = new TreeMap<>();
+        for (SecuyouLockDiagnostics lock : collect(console)) {
+            adapters.put(lock.getAdapter(), lock);
+            lockCounts.merge(lock.getAdapter(), 1, Integer::sum);
+        }
+        if (adapters.isEmpty()) {
+            console.println("No Secuyou locks");
+            return;
+        }
+        adapters.forEach((adapter, lock) -> {
+            console.println(adapter + ": " + lockCounts.get(adapter) + " locks");
+            SecuyouGattScheduler.Stats gattStats = lock.getGattStats();
+            if (gattStats != null) {
+                console.println("  gatt: in flight " + gattStats.getInFlight());
+                for (SecuyouGattScheduler.Priority priority : SecuyouGattScheduler.Priority.values()) {
+                    console.println("    " + priority + ": " + gattStats.get(priority));
+                }
+            }
+            SecuyouPollCoordinator.Stats pollStats = lock.getPollStats();
+            if (pollStats != null) {
+                console.println("  polls: " + pollStats);
+            }
+        });
+    }
+
+    private void probe(Console console, String uid, int count) {
+        SecuyouSmartLockHandler handler;
+        try {
+            handler = getHandler(new ThingUID(uid));
+        } catch (IllegalArgumentException e) {
+            console.println("Invalid thing UID " + uid);
+            return;
+        }
+        if (handler == null) {
+            console.println("No Secuyou lock " + uid);
+            return;
+        }
+        long totalMillis = 0;
+        long maxMillis = 0;
+        for (int i = 1; i <= count; i++) {
+            long startNanos = System.nanoTime();
+            try {
+                Duration roundTrip = handler.probeStatusRead().get(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                console.println("Status read #" + i + ": " + roundTrip.toMillis() + "ms round trip, "
+                        + Math.max(0, elapsedMillis - roundTrip.toMillis()) + "ms queued");
+                totalMillis += roundTrip.toMillis();
+                maxMillis = Math.max(maxMillis, roundTrip.toMillis());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                console.println("Status read #" + i + " failed: " + (cause != null ? cause.getMessage() : e));
+                return;
+            } catch (TimeoutException e) {
+                console.println("Status read #" + i + " not answered within " + PROBE_TIMEOUT_SECONDS + "s");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (count > 1) {
+            console.println("Average " + totalMillis / count + "ms, max " + maxMillis + "ms");
+        }
+    }
+
+    /**
+     * Snapshots of all locks sorted by thing UID, locks that do not answer in time are reported and left out
+     */
+    private List<SecuyouLockDiagnostics> collect(Console console) {
+        Map<String, SecuyouLockDiagnostics> locks = new TreeMap<>();
+        for (Thing thing : thingRegistry.getAll()) {
+            ThingHandler handler = thing.getHandler();
+            if (handler instanceof SecuyouSmartLockHandler) {
+                try {
+                    SecuyouLockDiagnostics diagnostics = ((SecuyouSmartLockHandler) handler).getDiagnostics()
+                            .get(DIAGNOSTICS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    locks.put(thing.getUID().getAsString(), diagnostics);
+                } catch (ExecutionException | TimeoutException e) {
+                    console.println(thing.getUID() + ": no answer from the lock's mailbox (" + e + ")");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(locks.values());
+    }
+
+    private @Nullable SecuyouSmartLockHandler getHandler(ThingUID uid) {
+        Thing thing = thingRegistry.get(uid);
+        ThingHandler handler = thing != null ? thing.getHandler() : null;
+        return handler instanceof SecuyouSmartLockHandler ? (SecuyouSmartLockHandler) handler : null;
+    }
+
+    private static String formatAge(long millis) {
+        if (millis < 60_000) {
+            return millis / 1000 + "s ago";
+        } else if (millis < 3_600_000) {
+            return millis / 60_000 + "m ago";
+        }
+        return millis / 3_600_000 + "h ago";
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+
+/**
+ * The {@link SecuyouFleetAggregates} is an immutable view of the aggregated status of all locks
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouFleetAggregates {
+
+    private final int lockCount;
+    private final int lockedCount;
+    private final int openHandleCount;
+    private final BatteryStatus lowestBattery;
+    private final @Nullable String lowestBatteryLock;
+
+    public SecuyouFleetAggregates(int lockCount, int lockedCount, int openHandleCount, BatteryStatus lowestBattery,
+            @Nullable String lowestBatteryLock) {
+        this.lockCount = lockCount;
+        this.lockedCount = lockedCount;
+        this.openHandleCount = openHandleCount;
+        this.lowestBattery = lowestBattery;
+        this.lowestBatteryLock = lowestBatteryLock;
+    }
+
+    public int getLockCount() {
+        return lockCount;
+    }
+
+    public int getLockedCount() {
+        return lockedCount;
+    }
+
+    /**
+     * @return true if there are locks and all of them report LOCKED. Locks with unknown position count as not locked.
+     */
+    public boolean isAllLocked() {
+        return lockCount > 0 && lockedCount == lockCount;
+    }
+
+    public int getOpenHandleCount() {
+        return openHandleCount;
+    }
+
+    /**
+     * @return worst battery status reported by any lock, UNKNOWN if none has reported yet
+     */
+    public BatteryStatus getLowestBattery() {
+        return lowestBattery;
+    }
+
+    /**
+     * @return label of a lock with the lowest battery status
+     */
+    public @Nullable String getLowestBatteryLock() {
+        return lowestBatteryLock;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SecuyouFleetAggregates that = (SecuyouFleetAggregates) o;
+        return lockCount == that.lockCount && lockedCount == that.lockedCount
+                && openHandleCount == that.openHandleCount && lowestBattery == that.lowestBattery
+                && Objects.equals(lowestBatteryLock, that.lowestBatteryLock);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lockCount, lockedCount, openHandleCount, lowestBattery, lowestBatteryLock);
+    }
+
+    @Override
+    public String toString() {
+        return "SecuyouFleetAggregates{" + "lockCount=" + lockCount + ", lockedCount=" + lockedCount
+                + ", openHandleCount=" + openHandleCount + ", lowestBattery=" + lowestBattery + ", lowestBatteryLock="
+                + lowestBatteryLock + '}';
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.action.SecuyouFleetActions;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatus;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.BaseThingHandler;
+import org.openhab.core.thing.binding.ThingHandlerService;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.RefreshType;
+import org.openhab.core.types.UnDefType;
+
+/**
+ * The {@link SecuyouFleetHandler} publishes the aggregated status of all Secuyou locks, so that rules can watch a
+ * single item instead of iterating over every lock. Rules can also lock or unlock many locks in one go.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouFleetHandler extends BaseThingHandler implements SecuyouFleetRegistry.Listener {
+
+    private final SecuyouFleetRegistry fleetRegistry;
+    private final Map<ThingUID, SecuyouSmartLockHandler> lockHandlers;
+    private @Nullable SecuyouFleetAggregates published;
+
+    /**
+     * @param lockHandlers handlers of all locks of the binding, kept up to date by the factory
+     */
+    public SecuyouFleetHandler(Thing thing, SecuyouFleetRegistry fleetRegistry,
+            Map<ThingUID, SecuyouSmartLockHandler> lockHandlers) {
+        super(thing);
+        this.fleetRegistry = fleetRegistry;
+        this.lockHandlers = lockHandlers;
+    }
+
+    @Override
+    public void initialize() {
+        published = null;
+        fleetRegistry.addListener(this);
+        updateStatus(ThingStatus.ONLINE);
+        onAggregatesChanged(fleetRegistry.getAggregates());
+    }
+
+    @Override
+    public void dispose() {
+        fleetRegistry.removeListener(this);
+        super.dispose();
+    }
+
+    @Override
+    public Collection<Class<? extends ThingHandlerService>> getServices() {
+        return List.of(SecuyouFleetActions.class);
+    }
+
+    /**
+     * Lock or unlock the given locks in parallel, locks already in position are left alone
+     *
+     * @param locks locks to command, all locks of the binding if empty
+     */
+    public CompletableFuture<SecuyouGroupResult> setLockedAndConfirm(Collection<ThingUID> locks, boolean locked,
+            Duration timeout) {
+        Collection<ThingUID> targets = locks.isEmpty() ? new ArrayList<>(lockHandlers.keySet()) : locks;
+        return SecuyouGroupCommand.run(targets, lock -> {
+            SecuyouSmartLockHandler handler = lockHandlers.get(lock);
+            return handler != null ? handler.setLockedAndConfirm(locked, timeout)
+                    : CompletableFuture.completedFuture(SecuyouCommandResult.FAILED);
+        }, SecuyouClock.SYSTEM);
+    }
+
+    @Override
+    public void handleCommand(ChannelUID channelUID, Command command) {
+        if (command instanceof RefreshType) {
+            published = null;
+            onAggregatesChanged(fleetRegistry.getAggregates());
+        }
+    }
+
+    /**
+     * Only channels whose value changed are updated
+     */
+    @Override
+    public synchronized void onAggregatesChanged(SecuyouFleetAggregates aggregates) {
+        SecuyouFleetAggregates previous = published;
+        published = aggregates;
+        if (previous == null || previous.getLockCount() != aggregates.getLockCount()) {
+            updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK_COUNT, new DecimalType(aggregates.getLockCount()));
+        }
+        if (previous == null || previous.getLockedCount() != aggregates.getLockedCount()) {
+            updateState(SecuyouBindingConstants.CHANNEL_ID_LOCKED_COUNT, new DecimalType(aggregates.getLockedCount()));
+        }
+        if (previous == null || previous.isAllLocked() != aggregates.isAllLocked()) {
+            updateState(SecuyouBindingConstants.CHANNEL_ID_ALL_LOCKED, OnOffType.from(aggregates.isAllLocked()));
+        }
+        if (previous == null || previous.getOpenHandleCount() != aggregates.getOpenHandleCount()) {
+            updateState(SecuyouBindingConstants.CHANNEL_ID_OPEN_HANDLES,
+                    new DecimalType(aggregates.getOpenHandleCount()));
+        }
+        if (previous == null || previous.getLowestBattery() != aggregates.getLowestBattery()) {
+            updateState(SecuyouBindingConstants.CHANNEL_ID_LOWEST_BATTERY,
+                    aggregates.getLowestBattery() == BatteryStatus.UNKNOWN ? UnDefType.UNDEF
+                            : new StringType(aggregates.getLowestBattery().toString()));
+        }
+        String lowestBatteryLock = aggregates.getLowestBatteryLock();
+        if (previous == null || !Objects.equals(previous.getLowestBatteryLock(), lowestBatteryLock)) {
+            updateState(SecuyouBindingConstants.CHANNEL_ID_LOWEST_BATTERY_LOCK,
+                    lowestBatteryLock == null ? UnDefType.UNDEF : new StringType(lowestBatteryLock));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+import org.openhab.binding.bluetooth.secuyou.internal.state.HandleState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * The {@link SecuyouFleetRegistry} aggregates the status of all locks of the binding. Each lock reports its status on
+ * every frame; the registry keeps the last contribution per lock and adjusts counters by the difference, so an update
+ * costs the same regardless of fleet size. Listeners are only notified when the aggregates actually change.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouFleetRegistry {
+
+    public interface Listener {
+        void onAggregatesChanged(SecuyouFleetAggregates aggregates);
+    }
+
+    /**
+     * Battery states from worst to best, UNKNOWN does not take part
+     */
+    private static final BatteryStatus[] BATTERY_SEVERITY = { BatteryStatus.EMPTY, BatteryStatus.CRITICAL,
+            BatteryStatus.LOW, BatteryStatus.GOOD };
+
+    private static class Contribution {
+        final String label;
+        LockingMechanismPosition position = LockingMechanismPosition.UNKNOWN;
+        HandleState handle = HandleState.UNKNOWN;
+        BatteryStatus battery = BatteryStatus.UNKNOWN;
+
+        Contribution(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<ThingUID, Contribution> contributions = new HashMap<>();
+    private final Map<BatteryStatus, Set<ThingUID>> locksByBattery = new EnumMap<>(BatteryStatus.class);
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private int lockedCount;
+    private int openHandleCount;
+    private SecuyouFleetAggregates aggregates = new SecuyouFleetAggregates(0, 0, 0, BatteryStatus.UNKNOWN, null);
+
+    public SecuyouFleetRegistry() {
+        for (BatteryStatus status : BATTERY_SEVERITY) {
+            locksByBattery.put(status, new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Listeners are called while holding the registry lock so that they see changes in order, they must not call
+     * back into the registry from another thread
+     */
+    public synchronized void update(ThingUID lock, String label, LockingMechanismPosition position,
+            HandleState handle, BatteryStatus battery) {
+        Contribution contribution = contributions.get(lock);
+        if (contribution == null) {
+            contribution = new Contribution(label);
+            contributions.put(lock, contribution);
+        } else if (contribution.position == position && contribution.handle == handle
+                && contribution.battery == battery) {
+            return;
+        } else {
+            subtract(lock, contribution);
+        }
+        contribution.position = position;
+        contribution.handle = handle;
+        contribution.battery = battery;
+        add(lock, contribution);
+        recompute();
+    }
+
+    public synchronized void remove(ThingUID lock) {
+        Contribution contribution = contributions.remove(lock);
+        if (contribution != null) {
+            subtract(lock, contribution);
+            recompute();
+        }
+    }
+
+    /**
+     * Position and handle of the given locks are no longer known, battery is kept. Applied as one change, so an adapter
+     * outage is a single transition for listeners rather than one per lock.
+     */
+    public synchronized void markUnavailable(Collection<ThingUID> locks) {
+        boolean changed = false;
+        for (ThingUID lock : locks) {
+            Contribution contribution = contributions.get(lock);
+            if (contribution != null && (contribution.position != LockingMechanismPosition.UNKNOWN
+                    || contribution.handle != HandleState.UNKNOWN)) {
+                subtract(lock, contribution);
+                contribution.position = LockingMechanismPosition.UNKNOWN;
+                contribution.handle = HandleState.UNKNOWN;
+                add(lock, contribution);
+                changed = true;
+            }
+        }
+        if (changed) {
+            recompute();
+        }
+    }
+
+    public synchronized SecuyouFleetAggregates getAggregates() {
+        return aggregates;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void add(ThingUID lock, Contribution contribution) {
+        if (contribution.position == LockingMechanismPosition.LOCKED) {
+            lockedCount++;
+        }
+        if (contribution.handle == HandleState.OPEN) {
+            openHandleCount++;
+        }
+        Set<ThingUID> locks = locksByBattery.get(contribution.battery);
+        if (locks != null) {
+            locks.add(lock);
+        }
+    }
+
+    private void subtract(ThingUID lock, Contribution contribution) {
+        if (contribution.position == LockingMechanismPosition.LOCKED) {
+            lockedCount--;
+        }
+        if (contribution.handle == HandleState.OPEN) {
+            openHandleCount--;
+        }
+        Set<ThingUID> locks = locksByBattery.get(contribution.battery);
+        if (locks != null) {
+            locks.remove(lock);
+        }
+    }
+
+    /**
+     * Constant time, only looks at the fixed number of battery buckets
+     */
+    private void recompute() {
+        BatteryStatus lowestBattery = BatteryStatus.UNKNOWN;
+        @Nullable
+        String lowestBatteryLock = null;
+        for (BatteryStatus status : BATTERY_SEVERITY) {
+            Set<ThingUID> locks = locksByBattery.get(status);
+            if (locks != null && !locks.isEmpty()) {
+                Iterator<ThingUID> iterator = locks.iterator();
+                Contribution contribution = contributions.get(iterator.next());
+                lowestBattery = status;
+                lowestBatteryLock = contribution != null ? contribution.label : null;
+                break;
+            }
+        }
+        SecuyouFleetAggregates updated = new SecuyouFleetAggregates(contributions.size(), lockedCount,
+                openHandleCount, lowestBattery, lowestBatteryLock);
+        if (!updated.equals(aggregates)) {
+            aggregates = updated;
+            for (Listener listener : listeners) {
+                listener.onAggregatesChanged(updated);
+            }
+        }
+    }
+}
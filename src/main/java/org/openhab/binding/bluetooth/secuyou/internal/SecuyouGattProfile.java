@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.BluetoothCharacteristic;
+import org.openhab.binding.bluetooth.BluetoothDevice;
+import org.openhab.binding.bluetooth.BluetoothService;
+
+/**
+ * The {@link SecuyouGattProfile} holds the GATT characteristics of one lock, resolved once after service discovery.
+ * Valid for the connection it was resolved on only, services may change between connections (firmware update).
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouGattProfile {
+
+    /**
+     * What an incoming characteristic is, so updates can be dispatched with a switch
+     */
+    public enum Role {
+        LOCK_STATUS,
+        LOCK_STATE,
+        CONFIRM,
+        OTHER
+    }
+
+    private static final UUID[] DEVICE_INFO_CHARACTERISTICS = { SecuyouBindingConstants.MODEL_NUMBER_CHARACTERISTIC,
+            SecuyouBindingConstants.HARDWARE_REVISION_CHARACTERISTIC, SecuyouBindingConstants.NA_CHARACTERISTIC,
+            SecuyouBindingConstants.SERIAL_CHARACTERISTIC, SecuyouBindingConstants.NAME_CHARACTERISTIC,
+            SecuyouBindingConstants.FIRMWARE_REVISION_CHARACTERISTIC };
+
+    private final BluetoothCharacteristic lockStatus;
+    private final BluetoothCharacteristic lockState;
+    private final BluetoothCharacteristic confirm;
+    private final Map<UUID, BluetoothCharacteristic> deviceInfo;
+
+    /**
+     * Not all adapters report attribute handles, dispatch by handle only if they identify the characteristics
+     */
+    private final boolean dispatchByHandle;
+
+    private SecuyouGattProfile(BluetoothCharacteristic lockStatus, BluetoothCharacteristic lockState,
+            BluetoothCharacteristic confirm, Map<UUID, BluetoothCharacteristic> deviceInfo) {
+        this.lockStatus = lockStatus;
+        this.lockState = lockState;
+        this.confirm = confirm;
+        this.deviceInfo = deviceInfo;
+        int statusHandle = lockStatus.getHandle();
+        int stateHandle = lockState.getHandle();
+        int confirmHandle = confirm.getHandle();
+        dispatchByHandle = statusHandle > 0 && stateHandle > 0 && confirmHandle > 0 && statusHandle != stateHandle
+                && statusHandle != confirmHandle && stateHandle != confirmHandle;
+    }
+
+    /**
+     * @return the profile, or null if the key service or one of its characteristics is missing
+     */
+    public static @Nullable SecuyouGattProfile resolve(BluetoothDevice device) {
+        BluetoothService keyService = device.getServices(SecuyouBindingConstants.KEY_SERVICE);
+        if (keyService == null) {
+            return null;
+        }
+        BluetoothCharacteristic lockStatus = keyService
+                .getCharacteristic(SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC);
+        BluetoothCharacteristic lockState = keyService
+                .getCharacteristic(SecuyouBindingConstants.LOCK_STATE_CHARACTERISTIC);
+        BluetoothCharacteristic confirm = keyService.getCharacteristic(SecuyouBindingConstants.CONFIRM_CHARACTERISTIC);
+        if (lockStatus == null || lockState == null || confirm == null) {
+            return null;
+        }
+        Map<UUID, BluetoothCharacteristic> deviceInfo = new HashMap<>(8);
+        for (UUID uuid : DEVICE_INFO_CHARACTERISTICS) {
+            BluetoothCharacteristic characteristic = device.getCharacteristic(uuid);
+            if (characteristic != null) {
+                deviceInfo.put(uuid, characteristic);
+            }
+        }
+        return new SecuyouGattProfile(lockStatus, lockState, confirm, Map.copyOf(deviceInfo));
+    }
+
+    public BluetoothCharacteristic getLockStatus() {
+        return lockStatus;
+    }
+
+    public BluetoothCharacteristic getLockState() {
+        return lockState;
+    }
+
+    public BluetoothCharacteristic getConfirm() {
+        return confirm;
+    }
+
+    /**
+     * @return device information characteristic, or null if the lock does not have it
+     */
+    public @Nullable BluetoothCharacteristic getDeviceInfo(UUID uuid) {
+        return deviceInfo.get(uuid);
+    }
+
+    public Role roleOf(BluetoothCharacteristic characteristic) {
+        if (dispatchByHandle) {
+            int handle = characteristic.getHandle();
+            if (handle == lockStatus.getHandle()) {
+                return Role.LOCK_STATUS;
+            } else if (handle == lockState.getHandle()) {
+                return Role.LOCK_STATE;
+            } else if (handle == confirm.getHandle()) {
+                return Role.CONFIRM;
+            }
+        }
+        return roleOf(characteristic.getUuid());
+    }
+
+    /**
+     * Fallback for updates arriving before the profile is resolved, or from adapters without handles
+     */
+    public static Role roleOf(UUID uuid) {
+        if (SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC.equals(uuid)) {
+            return Role.LOCK_STATUS;
+        } else if (SecuyouBindingConstants.LOCK_STATE_CHARACTERISTIC.equals(uuid)) {
+            return Role.LOCK_STATE;
+        } else if (SecuyouBindingConstants.CONFIRM_CHARACTERISTIC.equals(uuid)) {
+            return Role.CONFIRM;
+        }
+        return Role.OTHER;
+    }
+
+    @Override
+    public String toString() {
+        return "SecuyouGattProfile{" + "lockStatus=" + lockStatus.getHandle() + ", lockState=" + lockState.getHandle()
+                + ", confirm=" + confirm.getHandle() + ", deviceInfo=" + deviceInfo.size() + ", dispatchByHandle="
+                + dispatchByHandle + '}';
+    }
+}
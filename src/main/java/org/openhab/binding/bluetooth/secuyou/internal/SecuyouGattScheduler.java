@@ -0,0 +1,395 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.thing.ThingUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouGattScheduler} queues the GATT operations of all locks on one adapter. Only a few operations are
+ * in flight per adapter at a time. The next one is taken from the highest priority class with work, so a lock command
+ * never waits behind a burst of polls, and within a class the locks take turns.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouGattScheduler {
+
+    /**
+     * In order of precedence
+     */
+    public enum Priority {
+        COMMAND,
+        HANDSHAKE,
+        POLL,
+        PROPERTIES
+    }
+
+    static final int DEFAULT_MAX_IN_FLIGHT = 2;
+
+    /**
+     * An operation the adapter never answers must not hold its slot forever
+     */
+    static final long OPERATION_TIMEOUT_MILLIS = 30_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouGattScheduler.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final SecuyouClock clock;
+    private final int maxInFlight;
+    private final Map<String, Adapter> adapters = new HashMap<>();
+    private boolean disposed;
+
+    public SecuyouGattScheduler(ScheduledExecutorService scheduler) {
+        this(scheduler, SecuyouClock.SYSTEM, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    SecuyouGattScheduler(ScheduledExecutorService scheduler, SecuyouClock clock, int maxInFlight) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Queue an operation, it is started once the adapter has a free slot and nothing more urgent is waiting
+     *
+     * @param adapter key of the radio the lock is reached through
+     * @param operation starts the operation on the device, called without any lock held
+     */
+    public <T> CompletableFuture<T> submit(String adapter, ThingUID lock, Priority priority,
+            Supplier<CompletableFuture<T>> operation) {
+        Operation<T> queued = new Operation<>(lock, priority, operation, clock.nanoTime());
+        synchronized (this) {
+            if (disposed) {
+                return CompletableFuture.failedFuture(new SecuyouException("GATT scheduler disposed"));
+            }
+            adapters.computeIfAbsent(adapter, key -> new Adapter()).enqueue(queued);
+        }
+        dispatch(adapter);
+        return queued.result;
+    }
+
+    /**
+     * Drop the queued operations of a lock, for instance after it disconnected. Operations in flight run to
+     * completion.
+     */
+    public void cancel(String adapter, ThingUID lock) {
+        List<Operation<?>> dropped;
+        synchronized (this) {
+            Adapter state = adapters.get(adapter);
+            if (state == null) {
+                return;
+            }
+            dropped = state.remove(lock);
+        }
+        for (Operation<?> operation : dropped) {
+            operation.result.completeExceptionally(new SecuyouException("Operation cancelled, lock " + lock
+                    + " went away"));
+        }
+    }
+
+    /**
+     * Fail all queued and running operations and stop their timeouts, answers arriving later are ignored
+     */
+    public void dispose() {
+        List<Operation<?>> dropped = new ArrayList<>();
+        synchronized (this) {
+            disposed = true;
+            for (Adapter state : adapters.values()) {
+                dropped.addAll(state.removeAll());
+                dropped.addAll(state.running);
+            }
+            adapters.clear();
+        }
+        for (Operation<?> operation : dropped) {
+            ScheduledFuture<?> timeout = operation.timeout;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            operation.result.completeExceptionally(new SecuyouException("GATT scheduler disposed"));
+        }
+    }
+
+    public synchronized @Nullable Stats getStats(String adapter) {
+        Adapter state = adapters.get(adapter);
+        return state == null ? null : state.stats();
+    }
+
+    public synchronized Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new HashMap<>();
+        adapters.forEach((key, state) -> stats.put(key, state.stats()));
+        return stats;
+    }
+
+    /**
+     * Start as many operations as there are free slots. Operations are picked under the lock and started outside it,
+     * since a device may complete an operation right away on the calling thread.
+     */
+    private void dispatch(String adapter) {
+        List<Operation<?>> started = new ArrayList<>(1);
+        synchronized (this) {
+            Adapter state = adapters.get(adapter);
+            if (state == null) {
+                return;
+            }
+            Operation<?> next;
+            while (state.running.size() < maxInFlight && (next = state.poll()) != null) {
+                state.running.add(next);
+                state.recordWait(next.priority, clock.nanoTime() - next.queuedNanos);
+                started.add(next);
+            }
+        }
+        for (Operation<?> operation : started) {
+            start(adapter, operation);
+        }
+    }
+
+    private <T> void start(String adapter, Operation<T> operation) {
+        CompletableFuture<T> running;
+        try {
+            running = operation.operation.get();
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+            logger.debug("GATT operation of {} on {} not answered within {}ms, releasing its slot", operation.lock,
+                    adapter, OPERATION_TIMEOUT_MILLIS);
+            release(adapter, operation);
+            operation.result.completeExceptionally(
+                    new TimeoutException("GATT operation not answered within " + OPERATION_TIMEOUT_MILLIS + "ms"));
+        }, OPERATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        operation.timeout = timeout;
+        running.whenComplete((result, ex) -> {
+            timeout.cancel(false);
+            release(adapter, operation);
+            if (ex != null) {
+                operation.result.completeExceptionally(ex);
+            } else {
+                operation.result.complete(result);
+            }
+        });
+    }
+
+    private void release(String adapter, Operation<?> operation) {
+        synchronized (this) {
+            Adapter state = adapters.get(adapter);
+            // Released once, by whichever of answer and timeout comes first
+            if (state == null || !state.running.remove(operation)) {
+                return;
+            }
+        }
+        dispatch(adapter);
+    }
+
+    private static class Operation<T> {
+        final ThingUID lock;
+        final Priority priority;
+        final Supplier<CompletableFuture<T>> operation;
+        final long queuedNanos;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        volatile @Nullable ScheduledFuture<?> timeout;
+
+        Operation(ThingUID lock, Priority priority, Supplier<CompletableFuture<T>> operation, long queuedNanos) {
+            this.lock = lock;
+            this.priority = priority;
+            this.operation = operation;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+
+    /**
+     * Queues of one priority class, one per lock, served round robin
+     */
+    private static class PriorityClass {
+        final Map<ThingUID, ArrayDeque<Operation<?>>> queues = new LinkedHashMap<>();
+        long operations;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        @Nullable
+        Operation<?> poll() {
+            Iterator<Map.Entry<ThingUID, ArrayDeque<Operation<?>>>> iterator = queues.entrySet().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            Map.Entry<ThingUID, ArrayDeque<Operation<?>>> entry = iterator.next();
+            ArrayDeque<Operation<?>> queue = entry.getValue();
+            Operation<?> next = queue.poll();
+            // Back of the line, other locks go first
+            iterator.remove();
+            if (!queue.isEmpty()) {
+                queues.put(entry.getKey(), queue);
+            }
+            return next;
+        }
+
+        int queued() {
+            int queued = 0;
+            for (ArrayDeque<Operation<?>> queue : queues.values()) {
+                queued += queue.size();
+            }
+            return queued;
+        }
+    }
+
+    private static class Adapter {
+        final Map<Priority, PriorityClass> classes = new EnumMap<>(Priority.class);
+        final Set<Operation<?>> running = new HashSet<>();
+
+        Adapter() {
+            for (Priority priority : Priority.values()) {
+                classes.put(priority, new PriorityClass());
+            }
+        }
+
+        void enqueue(Operation<?> operation) {
+            PriorityClass priorityClass = classes.get(operation.priority);
+            if (priorityClass != null) {
+                priorityClass.queues.computeIfAbsent(operation.lock, lock -> new ArrayDeque<>()).add(operation);
+            }
+        }
+
+        @Nullable
+        Operation<?> poll() {
+            for (PriorityClass priorityClass : classes.values()) {
+                Operation<?> next = priorityClass.poll();
+                if (next != null) {
+                    return next;
+                }
+            }
+            return null;
+        }
+
+        List<Operation<?>> remove(ThingUID lock) {
+            List<Operation<?>> removed = new ArrayList<>();
+            for (PriorityClass priorityClass : classes.values()) {
+                ArrayDeque<Operation<?>> queue = priorityClass.queues.remove(lock);
+                if (queue != null) {
+                    removed.addAll(queue);
+                }
+            }
+            return removed;
+        }
+
+        List<Operation<?>> removeAll() {
+            List<Operation<?>> removed = new ArrayList<>();
+            for (PriorityClass priorityClass : classes.values()) {
+                priorityClass.queues.values().forEach(removed::addAll);
+                priorityClass.queues.clear();
+            }
+            return removed;
+        }
+
+        void recordWait(Priority priority, long waitNanos) {
+            PriorityClass priorityClass = classes.get(priority);
+            if (priorityClass != null) {
+                priorityClass.operations++;
+                priorityClass.totalWaitNanos += waitNanos;
+                priorityClass.maxWaitNanos = Math.max(priorityClass.maxWaitNanos, waitNanos);
+            }
+        }
+
+        Stats stats() {
+            Map<Priority, ClassStats> byPriority = new EnumMap<>(Priority.class);
+            classes.forEach((priority, priorityClass) -> byPriority.put(priority,
+                    new ClassStats(priorityClass.queued(), priorityClass.operations,
+                            priorityClass.operations == 0 ? 0
+                                    : TimeUnit.NANOSECONDS
+                                            .toMillis(priorityClass.totalWaitNanos / priorityClass.operations),
+                            TimeUnit.NANOSECONDS.toMillis(priorityClass.maxWaitNanos))));
+            return new Stats(running.size(), byPriority);
+        }
+    }
+
+    /**
+     * Queue wait of one priority class on one adapter
+     */
+    public static class ClassStats {
+        private final int queued;
+        private final long operations;
+        private final long averageWaitMillis;
+        private final long maxWaitMillis;
+
+        ClassStats(int queued, long operations, long averageWaitMillis, long maxWaitMillis) {
+            this.queued = queued;
+            this.operations = operations;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public long getOperations() {
+            return operations;
+        }
+
+        public long getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("queued=%d, ops=%d, wait avg=%dms max=%dms", queued, operations, averageWaitMillis,
+                    maxWaitMillis);
+        }
+    }
+
+    public static class Stats {
+        private final int inFlight;
+        private final Map<Priority, ClassStats> byPriority;
+
+        Stats(int inFlight, Map<Priority, ClassStats> byPriority) {
+            this.inFlight = inFlight;
+            this.byPriority = byPriority;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public @Nullable ClassStats get(Priority priority) {
+            return byPriority.get(priority);
+        }
+
+        @Override
+        public String toString() {
+            return "inFlight=" + inFlight + ", " + byPriority;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouGroupResult.LockResult;
+import org.openhab.core.thing.ThingUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouGroupCommand} sends a confirmed command to several locks at once and collects the outcomes. All
+ * commands are started right away, the {@link SecuyouGattScheduler} of each adapter decides how many of them are on
+ * the air at a time.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouGroupCommand {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouGroupCommand.class);
+
+    private SecuyouGroupCommand() {
+    }
+
+    /**
+     * @param command sends the command to one lock, completes once the lock has confirmed it or gave up
+     * @return completes when every lock has answered, never exceptionally
+     */
+    public static CompletableFuture<SecuyouGroupResult> run(Collection<ThingUID> locks,
+            Function<ThingUID, CompletableFuture<SecuyouCommandResult>> command, SecuyouClock clock) {
+        List<CompletableFuture<LockResult>> results = new ArrayList<>(locks.size());
+        for (ThingUID lock : locks) {
+            long startNanos = clock.nanoTime();
+            CompletableFuture<SecuyouCommandResult> sent;
+            try {
+                sent = command.apply(lock);
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            results.add(sent.handle((result, ex) -> {
+                long latencyMillis = TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - startNanos);
+                if (ex != null) {
+                    logger.debug("Group command to {} failed", lock, ex);
+                    return new LockResult(lock, SecuyouCommandResult.FAILED, latencyMillis);
+                }
+                return new LockResult(lock, result, latencyMillis);
+            }));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<LockResult> collected = new ArrayList<>(results.size());
+            for (CompletableFuture<LockResult> result : results) {
+                collected.add(result.join());
+            }
+            return new SecuyouGroupResult(collected);
+        });
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * The {@link SecuyouGroupResult} is the outcome of a lock or unlock command sent to several locks at once
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouGroupResult {
+
+    /**
+     * Outcome of one lock, with the time from sending the command until it was confirmed or given up
+     */
+    public static class LockResult {
+        private final ThingUID lock;
+        private final SecuyouCommandResult result;
+        private final long latencyMillis;
+
+        LockResult(ThingUID lock, SecuyouCommandResult result, long latencyMillis) {
+            this.lock = lock;
+            this.result = result;
+            this.latencyMillis = latencyMillis;
+        }
+
+        public ThingUID getLock() {
+            return lock;
+        }
+
+        public SecuyouCommandResult getResult() {
+            return result;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        /**
+         * Confirmed or already in position
+         */
+        public boolean isSuccess() {
+            return result == SecuyouCommandResult.CONFIRMED || result == SecuyouCommandResult.ALREADY_IN_POSITION;
+        }
+
+        @Override
+        public String toString() {
+            return lock + "=" + result + " (" + latencyMillis + "ms)";
+        }
+    }
+
+    private final List<LockResult> locks;
+
+    SecuyouGroupResult(List<LockResult> locks) {
+        this.locks = List.copyOf(locks);
+    }
+
+    public List<LockResult> getLocks() {
+        return locks;
+    }
+
+    public int getConfirmedCount() {
+        return count(SecuyouCommandResult.CONFIRMED);
+    }
+
+    public int getSkippedCount() {
+        return count(SecuyouCommandResult.ALREADY_IN_POSITION);
+    }
+
+    public List<LockResult> getFailures() {
+        return locks.stream().filter(lock -> !lock.isSuccess()).collect(Collectors.toList());
+    }
+
+    public boolean isSuccess() {
+        return locks.stream().allMatch(LockResult::isSuccess);
+    }
+
+    /**
+     * @return the slowest confirmation, locks that were skipped or failed do not count
+     */
+    public long getMaxLatencyMillis() {
+        return locks.stream().filter(lock -> lock.getResult() == SecuyouCommandResult.CONFIRMED)
+                .mapToLong(LockResult::getLatencyMillis).max().orElse(0);
+    }
+
+    private int count(SecuyouCommandResult result) {
+        return (int) locks.stream().filter(lock -> lock.getResult() == result).count();
+    }
+
+    @Override
+    public String toString() {
+        return locks.toString();
+    }
+}
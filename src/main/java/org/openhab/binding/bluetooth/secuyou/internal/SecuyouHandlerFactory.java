@@ -12,14 +12,20 @@
  */
 package org.openhab.binding.bluetooth.secuyou.internal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingTypeUID;
+import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.binding.BaseThingHandlerFactory;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 
 /**
  * The {@link SecuyouHandlerFactory} is responsible for creating things and thing handlers.
@@ -30,6 +36,22 @@ import org.osgi.service.component.annotations.Component;
 @Component(service = ThingHandlerFactory.class, configurationPid = "binding.secuyou")
 public class SecuyouHandlerFactory extends BaseThingHandlerFactory {
 
+    private final SecuyouFleetRegistry fleetRegistry = new SecuyouFleetRegistry();
+    private final SecuyouPollCoordinator pollCoordinator = new SecuyouPollCoordinator(
+            ThreadPoolManager.getScheduledPool("thingHandler"));
+    private final SecuyouOutageCoordinator outageCoordinator = new SecuyouOutageCoordinator(
+            ThreadPoolManager.getScheduledPool("thingHandler"), fleetRegistry);
+    private final SecuyouGattScheduler gattScheduler = new SecuyouGattScheduler(
+            ThreadPoolManager.getScheduledPool("thingHandler"));
+    private final Map<ThingUID, SecuyouSmartLockHandler> lockHandlers = new ConcurrentHashMap<>();
+
+    @Deactivate
+    public void deactivate() {
+        pollCoordinator.dispose();
+        outageCoordinator.dispose();
+        gattScheduler.dispose();
+    }
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SecuyouBindingConstants.SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
@@ -39,9 +61,19 @@ public class SecuyouHandlerFactory extends BaseThingHandlerFactory {
     protected @Nullable ThingHandler createHandler(Thing thing) {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
         if (thingTypeUID.equals(SecuyouBindingConstants.THING_TYPE_SMART_LOCK)) {
-            return new SecuyouSmartLockHandler(thing);
+            SecuyouSmartLockHandler handler = new SecuyouSmartLockHandler(thing, fleetRegistry, pollCoordinator,
+                    outageCoordinator, gattScheduler);
+            lockHandlers.put(thing.getUID(), handler);
+            return handler;
+        } else if (thingTypeUID.equals(SecuyouBindingConstants.THING_TYPE_FLEET)) {
+            return new SecuyouFleetHandler(thing, fleetRegistry, lockHandlers);
         }
 
         return null;
     }
+
+    @Override
+    protected void removeHandler(ThingHandler thingHandler) {
+        lockHandlers.remove(thingHandler.getThing().getUID(), thingHandler);
+    }
 }
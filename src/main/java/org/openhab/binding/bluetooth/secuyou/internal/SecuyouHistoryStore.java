@@ -0,0 +1,575 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+import org.openhab.binding.bluetooth.secuyou.internal.state.HandleState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouHistoryStore} keeps months of lock history of one thing in a fixed size binary file. Three rings
+ * share the file: every lock, handle and battery transition, hourly buckets and daily buckets. Buckets add up how long
+ * the lock was locked, the handle open and the state known, so the coarser tiers keep answering after the finer ones
+ * have wrapped. Frames only update the buckets in memory, the file is written on transitions, when a new bucket is
+ * started and when closing.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouHistoryStore {
+
+    public enum Resolution {
+        RAW,
+        HOURLY,
+        DAILY
+    }
+
+    static final int RAW_CAPACITY = 2048;
+    static final int HOURLY_CAPACITY = 24 * 92;
+    static final int DAILY_CAPACITY = 2 * 366;
+
+    private static final int MAGIC = 0x53594831;
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * MAGIC - VERSION - (NEXT - COUNT) per ring
+     */
+    private static final int HEADER_LENGTH = 32;
+
+    /**
+     * TIMESTAMP (8) - LOCK POSITION - HANDLE - BATTERY - RESERVED
+     */
+    static final int RAW_RECORD_LENGTH = 12;
+
+    /**
+     * START (8) - LOCKED MILLIS (4) - HANDLE OPEN MILLIS (4) - KNOWN MILLIS (4) - LOW BATTERY MILLIS (4) - LOCKS (2)
+     * - UNLOCKS (2) - HANDLE OPENS (2) - WORST BATTERY - RESERVED
+     */
+    static final int BUCKET_RECORD_LENGTH = 32;
+
+    static final long FILE_LENGTH = HEADER_LENGTH + (long) RAW_CAPACITY * RAW_RECORD_LENGTH
+            + (long) HOURLY_CAPACITY * BUCKET_RECORD_LENGTH + (long) DAILY_CAPACITY * BUCKET_RECORD_LENGTH;
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouHistoryStore.class);
+
+    private final Path file;
+    private final Ring raw = new Ring(HEADER_LENGTH, RAW_CAPACITY, RAW_RECORD_LENGTH, 0);
+    private final Ring hourly = new Ring(raw.end(), HOURLY_CAPACITY, BUCKET_RECORD_LENGTH, TimeUnit.HOURS.toMillis(1));
+    private final Ring daily = new Ring(hourly.end(), DAILY_CAPACITY, BUCKET_RECORD_LENGTH, TimeUnit.DAYS.toMillis(1));
+
+    private @Nullable FileChannel channel;
+
+    // Last recorded transition, restored from the file
+    private LockingMechanismPosition position = LockingMechanismPosition.UNKNOWN;
+    private HandleState handle = HandleState.UNKNOWN;
+    private BatteryStatus battery = BatteryStatus.UNKNOWN;
+
+    /**
+     * Time up to which durations have been added to the buckets, or -1 while the lock is unavailable
+     */
+    private long accountedUntilMillis = -1;
+
+    public SecuyouHistoryStore(Path directory, String thingUID) {
+        this.file = directory.resolve(thingUID.replaceAll("[^A-Za-z0-9_.-]", "_") + ".history");
+    }
+
+    /**
+     * A status frame has been decoded. Bolt movement and unknown values do not replace the last known value.
+     */
+    public synchronized void record(Instant now, LockingMechanismPosition newPosition, HandleState newHandle,
+            BatteryStatus newBattery) {
+        FileChannel current = open();
+        if (current == null) {
+            return;
+        }
+        long nowMillis = now.toEpochMilli();
+        try {
+            account(current, nowMillis);
+            LockingMechanismPosition previousPosition = position;
+            HandleState previousHandle = handle;
+            BatteryStatus previousBattery = battery;
+            if (newPosition == LockingMechanismPosition.LOCKED || newPosition == LockingMechanismPosition.UNLOCKED) {
+                position = newPosition;
+            }
+            if (newHandle != HandleState.UNKNOWN) {
+                handle = newHandle;
+            }
+            if (newBattery != BatteryStatus.UNKNOWN) {
+                battery = newBattery;
+            }
+            boolean transition = position != previousPosition || handle != previousHandle
+                    || battery != previousBattery;
+            if (transition) {
+                appendTransition(current, nowMillis);
+                Bucket hour = hourly.bucketAt(current, nowMillis);
+                Bucket day = daily.bucketAt(current, nowMillis);
+                if (position != previousPosition && previousPosition != LockingMechanismPosition.UNKNOWN) {
+                    hour.countLockTransition(position);
+                    day.countLockTransition(position);
+                }
+                if (handle == HandleState.OPEN && previousHandle == HandleState.CLOSED) {
+                    hour.handleOpens++;
+                    day.handleOpens++;
+                }
+            }
+            accountedUntilMillis = nowMillis;
+            // Durations of the current buckets are only written along with something else, or when closing
+            if (transition || hourly.advanced || daily.advanced) {
+                flush(current);
+            }
+        } catch (IOException e) {
+            logger.debug("Could not write lock history file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * The lock went away, time until the next frame does not count towards any state
+     */
+    public synchronized void recordUnavailable(Instant now) {
+        FileChannel current = open();
+        if (current == null) {
+            return;
+        }
+        try {
+            account(current, now.toEpochMilli());
+            flush(current);
+        } catch (IOException e) {
+            logger.debug("Could not write lock history file {}: {}", file, e.getMessage());
+        }
+        accountedUntilMillis = -1;
+    }
+
+    /**
+     * Sum up transitions and durations of the buckets starting within the range. Durations come from the finest bucket
+     * tier reaching back to the start of the range. Transitions are counted exactly as long as the transition ring
+     * reaches back that far.
+     *
+     * @param now current time, durations up to now are accounted before answering
+     */
+    public synchronized @Nullable SecuyouHistorySummary query(Instant from, Instant to, Instant now) {
+        FileChannel current = open();
+        if (current == null) {
+            return null;
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        try {
+            if (accountedUntilMillis >= 0) {
+                account(current, now.toEpochMilli());
+                accountedUntilMillis = now.toEpochMilli();
+                flush(current);
+            }
+            Ring buckets = hourly.reaches(current, fromMillis) ? hourly : daily;
+            Resolution durationResolution = buckets == hourly ? Resolution.HOURLY : Resolution.DAILY;
+            long lockedMillis = 0;
+            long handleOpenMillis = 0;
+            long knownMillis = 0;
+            long lowBatteryMillis = 0;
+            int worstBattery = -1;
+            Bucket transitions = new Bucket(fromMillis);
+            ByteBuffer records = buckets.readAll(current);
+            for (int i = 0; i < buckets.count; i++) {
+                Bucket bucket = Bucket.decode(records, buckets.slot(i) * BUCKET_RECORD_LENGTH);
+                if (bucket.startMillis >= fromMillis && bucket.startMillis < toMillis) {
+                    lockedMillis += bucket.lockedMillis;
+                    handleOpenMillis += bucket.handleOpenMillis;
+                    knownMillis += bucket.knownMillis;
+                    lowBatteryMillis += bucket.lowBatteryMillis;
+                    worstBattery = Math.max(worstBattery, bucket.worstBattery);
+                    transitions.locks += bucket.locks;
+                    transitions.unlocks += bucket.unlocks;
+                    transitions.handleOpens += bucket.handleOpens;
+                }
+            }
+            Resolution transitionResolution = durationResolution;
+            if (raw.reaches(current, fromMillis)) {
+                transitions = countTransitions(current, fromMillis, toMillis);
+                transitionResolution = Resolution.RAW;
+            }
+            transitions.worstBattery = worstBattery;
+            return new SecuyouHistorySummary(from, to, durationResolution, transitionResolution, transitions.locks,
+                    transitions.unlocks, transitions.handleOpens, Duration.ofMillis(lockedMillis),
+                    Duration.ofMillis(handleOpenMillis), Duration.ofMillis(knownMillis),
+                    Duration.ofMillis(lowBatteryMillis), transitions.worstBattery());
+        } catch (IOException e) {
+            logger.debug("Could not read lock history file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    public synchronized void close() {
+        FileChannel current = channel;
+        channel = null;
+        if (current != null) {
+            try {
+                flush(current);
+                current.close();
+            } catch (IOException e) {
+                logger.debug("Could not close lock history file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    public synchronized void delete() {
+        close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Could not delete lock history file {}: {}", file, e.getMessage());
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Add the time since the last frame to the buckets, with the state as it was. Split at hour boundaries, day
+     * boundaries are hour boundaries as well.
+     */
+    private void account(FileChannel current, long nowMillis) throws IOException {
+        long fromMillis = accountedUntilMillis;
+        if (fromMillis < 0 || position == LockingMechanismPosition.UNKNOWN) {
+            return;
+        }
+        while (fromMillis < nowMillis) {
+            long untilMillis = Math.min(nowMillis, hourly.periodStart(fromMillis) + hourly.periodMillis);
+            int millis = (int) (untilMillis - fromMillis);
+            hourly.bucketAt(current, fromMillis).add(millis, position, handle, battery);
+            daily.bucketAt(current, fromMillis).add(millis, position, handle, battery);
+            fromMillis = untilMillis;
+        }
+    }
+
+    /**
+     * Exact transition counts from the raw ring
+     */
+    private Bucket countTransitions(FileChannel current, long fromMillis, long toMillis) throws IOException {
+        ByteBuffer records = raw.readAll(current);
+        Bucket transitions = new Bucket(fromMillis);
+        LockingMechanismPosition previousPosition = LockingMechanismPosition.UNKNOWN;
+        HandleState previousHandle = HandleState.UNKNOWN;
+        for (int i = 0; i < raw.count; i++) {
+            int offset = raw.slot(i) * RAW_RECORD_LENGTH;
+            long timestamp = records.getLong(offset);
+            LockingMechanismPosition recordedPosition = decode(LockingMechanismPosition.values(),
+                    records.get(offset + 8), LockingMechanismPosition.UNKNOWN);
+            HandleState recordedHandle = decode(HandleState.values(), records.get(offset + 9), HandleState.UNKNOWN);
+            if (timestamp >= fromMillis && timestamp < toMillis) {
+                if (recordedPosition != previousPosition && previousPosition != LockingMechanismPosition.UNKNOWN) {
+                    transitions.countLockTransition(recordedPosition);
+                }
+                if (recordedHandle == HandleState.OPEN && previousHandle == HandleState.CLOSED) {
+                    transitions.handleOpens++;
+                }
+            }
+            previousPosition = recordedPosition;
+            previousHandle = recordedHandle;
+        }
+        return transitions;
+    }
+
+    private void appendTransition(FileChannel current, long nowMillis) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RAW_RECORD_LENGTH).putLong(nowMillis).put((byte) position.ordinal())
+                .put((byte) handle.ordinal()).put((byte) battery.ordinal()).put((byte) 0).flip();
+        current.write(record, raw.offset(raw.next));
+        raw.advance();
+    }
+
+    private @Nullable FileChannel open() {
+        FileChannel current = channel;
+        if (current != null) {
+            return current;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            current = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (!load(current)) {
+                logger.debug("Starting new lock history file {}", file);
+                current.truncate(0);
+                // Allocate the whole file up front, it never grows after this
+                current.write(ByteBuffer.allocate(1), FILE_LENGTH - 1);
+                raw.clear();
+                hourly.clear();
+                daily.clear();
+                writeHeader(current);
+            }
+            channel = current;
+            return current;
+        } catch (IOException e) {
+            logger.debug("Could not open lock history file {}: {}", file, e.getMessage());
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException closeException) {
+                    // Already failing
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return false if the file is new, truncated or written by an incompatible version
+     */
+    private boolean load(FileChannel current) throws IOException {
+        if (current.size() != FILE_LENGTH) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        current.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            return false;
+        }
+        if (!raw.load(header) || !hourly.load(header) || !daily.load(header)) {
+            return false;
+        }
+        if (raw.count > 0) {
+            ByteBuffer last = ByteBuffer.allocate(RAW_RECORD_LENGTH);
+            current.read(last, raw.offset(raw.slot(raw.count - 1)));
+            position = decode(LockingMechanismPosition.values(), last.get(8), LockingMechanismPosition.UNKNOWN);
+            handle = decode(HandleState.values(), last.get(9), HandleState.UNKNOWN);
+            battery = decode(BatteryStatus.values(), last.get(10), BatteryStatus.UNKNOWN);
+        }
+        hourly.loadCurrent(current);
+        daily.loadCurrent(current);
+        return true;
+    }
+
+    private void flush(FileChannel current) throws IOException {
+        hourly.flushCurrent(current);
+        daily.flushCurrent(current);
+        writeHeader(current);
+    }
+
+    private void writeHeader(FileChannel current) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(FORMAT_VERSION);
+        raw.store(header);
+        hourly.store(header);
+        daily.store(header);
+        current.write(header.flip(), 0);
+        raw.advanced = false;
+        hourly.advanced = false;
+        daily.advanced = false;
+    }
+
+    private static <T extends Enum<T>> T decode(T[] values, byte ordinal, T fallback) {
+        return ordinal >= 0 && ordinal < values.length ? values[ordinal] : fallback;
+    }
+
+    /**
+     * One ring in the file. The newest bucket of a bucket ring is kept in memory and rewritten in place until its
+     * period is over.
+     */
+    private static class Ring {
+        final long fileOffset;
+        final int capacity;
+        final int recordLength;
+        final long periodMillis;
+        int next;
+        int count;
+        boolean advanced;
+        @Nullable
+        Bucket current;
+
+        Ring(long fileOffset, int capacity, int recordLength, long periodMillis) {
+            this.fileOffset = fileOffset;
+            this.capacity = capacity;
+            this.recordLength = recordLength;
+            this.periodMillis = periodMillis;
+        }
+
+        long end() {
+            return fileOffset + (long) capacity * recordLength;
+        }
+
+        long offset(int slot) {
+            return fileOffset + (long) slot * recordLength;
+        }
+
+        /**
+         * @param index 0 for the oldest record
+         */
+        int slot(int index) {
+            return Math.floorMod(next - count + index, capacity);
+        }
+
+        void advance() {
+            next = (next + 1) % capacity;
+            count = Math.min(count + 1, capacity);
+            advanced = true;
+        }
+
+        void clear() {
+            next = 0;
+            count = 0;
+            current = null;
+        }
+
+        long periodStart(long millis) {
+            return millis - Math.floorMod(millis, periodMillis);
+        }
+
+        /**
+         * @return true if nothing older than the given time has been overwritten yet
+         */
+        boolean reaches(FileChannel channel, long millis) throws IOException {
+            if (count < capacity) {
+                return true;
+            }
+            ByteBuffer oldest = ByteBuffer.allocate(8);
+            channel.read(oldest, offset(slot(0)));
+            return oldest.getLong(0) <= millis;
+        }
+
+        /**
+         * Bucket covering the given time, opening a new one once the period of the newest is over. Time from before
+         * the newest bucket, after the clock was set back, goes into the newest.
+         */
+        Bucket bucketAt(FileChannel channel, long millis) throws IOException {
+            long start = periodStart(millis);
+            Bucket newest = current;
+            if (newest != null && newest.startMillis >= start) {
+                return newest;
+            }
+            if (newest != null) {
+                write(channel, newest);
+            }
+            Bucket bucket = new Bucket(start);
+            current = bucket;
+            advance();
+            return bucket;
+        }
+
+        void flushCurrent(FileChannel channel) throws IOException {
+            Bucket newest = current;
+            if (newest != null) {
+                write(channel, newest);
+            }
+        }
+
+        private void write(FileChannel channel, Bucket bucket) throws IOException {
+            ByteBuffer record = ByteBuffer.allocate(recordLength);
+            bucket.encode(record);
+            channel.write(record.flip(), offset(slot(count - 1)));
+        }
+
+        void loadCurrent(FileChannel channel) throws IOException {
+            if (count == 0) {
+                return;
+            }
+            ByteBuffer record = ByteBuffer.allocate(recordLength);
+            channel.read(record, offset(slot(count - 1)));
+            current = Bucket.decode(record, 0);
+        }
+
+        ByteBuffer readAll(FileChannel channel) throws IOException {
+            ByteBuffer records = ByteBuffer.allocate(capacity * recordLength);
+            channel.read(records, fileOffset);
+            return records;
+        }
+
+        boolean load(ByteBuffer header) {
+            next = header.getInt();
+            count = header.getInt();
+            return next >= 0 && next < capacity && count >= 0 && count <= capacity;
+        }
+
+        void store(ByteBuffer header) {
+            header.putInt(next).putInt(count);
+        }
+    }
+
+    private static class Bucket {
+        final long startMillis;
+        int lockedMillis;
+        int handleOpenMillis;
+        int knownMillis;
+        int lowBatteryMillis;
+        int locks;
+        int unlocks;
+        int handleOpens;
+        int worstBattery = -1;
+
+        Bucket(long startMillis) {
+            this.startMillis = startMillis;
+        }
+
+        void add(int millis, LockingMechanismPosition position, HandleState handle, BatteryStatus battery) {
+            knownMillis += millis;
+            if (position == LockingMechanismPosition.LOCKED) {
+                lockedMillis += millis;
+            }
+            if (handle == HandleState.OPEN) {
+                handleOpenMillis += millis;
+            }
+            if (battery != BatteryStatus.UNKNOWN) {
+                if (battery != BatteryStatus.GOOD) {
+                    lowBatteryMillis += millis;
+                }
+                worstBattery = Math.max(worstBattery, battery.ordinal());
+            }
+        }
+
+        void countLockTransition(LockingMechanismPosition position) {
+            if (position == LockingMechanismPosition.LOCKED) {
+                locks++;
+            } else {
+                unlocks++;
+            }
+        }
+
+        BatteryStatus worstBattery() {
+            return SecuyouHistoryStore.decode(BatteryStatus.values(), (byte) worstBattery, BatteryStatus.UNKNOWN);
+        }
+
+        void encode(ByteBuffer record) {
+            record.putLong(startMillis).putInt(lockedMillis).putInt(handleOpenMillis).putInt(knownMillis)
+                    .putInt(lowBatteryMillis).putShort(saturate(locks)).putShort(saturate(unlocks))
+                    .putShort(saturate(handleOpens)).put((byte) worstBattery).put((byte) 0);
+        }
+
+        static Bucket decode(ByteBuffer records, int offset) {
+            Bucket bucket = new Bucket(records.getLong(offset));
+            bucket.lockedMillis = records.getInt(offset + 8);
+            bucket.handleOpenMillis = records.getInt(offset + 12);
+            bucket.knownMillis = records.getInt(offset + 16);
+            bucket.lowBatteryMillis = records.getInt(offset + 20);
+            bucket.locks = Short.toUnsignedInt(records.getShort(offset + 24));
+            bucket.unlocks = Short.toUnsignedInt(records.getShort(offset + 26));
+            bucket.handleOpens = Short.toUnsignedInt(records.getShort(offset + 28));
+            bucket.worstBattery = records.get(offset + 30);
+            return bucket;
+        }
+
+        private static short saturate(int value) {
+            return (short) Math.min(value, 0xFFFF);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouHistoryStore.Resolution;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+
+/**
+ * The {@link SecuyouHistorySummary} is an immutable answer from the {@link SecuyouHistoryStore} for one time range.
+ * Durations only cover the time the lock state was known, compare with {@link #getKnown()} rather than the range.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouHistorySummary {
+
+    private final Instant from;
+    private final Instant to;
+    private final Resolution durationResolution;
+    private final Resolution transitionResolution;
+    private final int locks;
+    private final int unlocks;
+    private final int handleOpens;
+    private final Duration locked;
+    private final Duration handleOpen;
+    private final Duration known;
+    private final Duration lowBattery;
+    private final BatteryStatus worstBattery;
+
+    public SecuyouHistorySummary(Instant from, Instant to, Resolution durationResolution,
+            Resolution transitionResolution, int locks, int unlocks, int handleOpens, Duration locked,
+            Duration handleOpen, Duration known, Duration lowBattery, BatteryStatus worstBattery) {
+        this.from = from;
+        this.to = to;
+        this.durationResolution = durationResolution;
+        this.transitionResolution = transitionResolution;
+        this.locks = locks;
+        this.unlocks = unlocks;
+        this.handleOpens = handleOpens;
+        this.locked = locked;
+        this.handleOpen = handleOpen;
+        this.known = known;
+        this.lowBattery = lowBattery;
+        this.worstBattery = worstBattery;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    /**
+     * @return bucket tier the durations were summed from, buckets are counted if they start within the range
+     */
+    public Resolution getDurationResolution() {
+        return durationResolution;
+    }
+
+    /**
+     * @return RAW if the transitions were counted exactly, otherwise the bucket tier they were summed from
+     */
+    public Resolution getTransitionResolution() {
+        return transitionResolution;
+    }
+
+    public int getLocks() {
+        return locks;
+    }
+
+    public int getUnlocks() {
+        return unlocks;
+    }
+
+    public int getHandleOpens() {
+        return handleOpens;
+    }
+
+    public Duration getLocked() {
+        return locked;
+    }
+
+    public Duration getHandleOpen() {
+        return handleOpen;
+    }
+
+    public Duration getKnown() {
+        return known;
+    }
+
+    /**
+     * @return time the battery reported anything worse than GOOD
+     */
+    public Duration getLowBattery() {
+        return lowBattery;
+    }
+
+    /**
+     * @return worst battery status within the range, UNKNOWN if none was reported
+     */
+    public BatteryStatus getWorstBattery() {
+        return worstBattery;
+    }
+
+    @Override
+    public String toString() {
+        return "SecuyouHistorySummary{" + "from=" + from + ", to=" + to + ", resolution=" + durationResolution + "/"
+                + transitionResolution + ", locks=" + locks + ", unlocks=" + unlocks + ", handleOpens=" + handleOpens
+                + ", locked=" + locked + ", handleOpen=" + handleOpen + ", known=" + known + ", lowBattery="
+                + lowBattery + ", worstBattery=" + worstBattery + '}';
+    }
+}
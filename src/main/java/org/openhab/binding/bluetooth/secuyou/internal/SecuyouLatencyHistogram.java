@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link SecuyouLatencyHistogram} counts GATT operation latencies of one lock in fixed power of two buckets, from
+ * 1ms to about a minute. Memory and cost per sample stay the same however many operations are recorded, percentiles
+ * are rounded up to the bucket bound.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouLatencyHistogram {
+
+    /**
+     * Bucket i holds latencies up to 2^i ms, the last one everything above
+     */
+    static final int BUCKETS = 17;
+
+    private final long[] counts = new long[BUCKETS];
+    private long operations;
+    private long failures;
+    private long maxNanos;
+
+    public synchronized void sample(long latencyNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        // Smallest i with millis <= 2^i
+        int bucket = millis <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(millis - 1);
+        counts[Math.min(bucket, BUCKETS - 1)]++;
+        operations++;
+        maxNanos = Math.max(maxNanos, latencyNanos);
+    }
+
+    public synchronized void failure() {
+        operations++;
+        failures++;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        operations = 0;
+        failures = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return upper bound of the bucket holding the percentile of successful operations, -1 if there are none
+     */
+    public synchronized long getPercentileMillis(double percentile) {
+        long samples = operations - failures;
+        if (samples == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(samples * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS - 1; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(1L << bucket, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public synchronized long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+    }
+
+    public synchronized long getOperations() {
+        return operations;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ops=%d, failed=%d, p50=%dms, p90=%dms, p99=%dms, max=%dms", operations, failures,
+                getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(99), getMaxMillis());
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.state.AuthenticationState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.DeviceState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * The {@link SecuyouLockDiagnostics} is a snapshot of the connection and timing state of one lock, taken on its
+ * mailbox so that it is consistent
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouLockDiagnostics {
+
+    private final ThingUID lock;
+    private final String adapter;
+    private final boolean connected;
+    private final DeviceState deviceState;
+    private final AuthenticationState authenticationState;
+    private final LockingMechanismPosition position;
+    private final long statusFrames;
+    private final long lastFrameAgeMillis;
+    private final long statusGaps;
+    private final long skippedPolls;
+    private final long suppressedTransitions;
+    private final long lastAutoLockReactionMicros;
+    private final long maxAutoLockReactionMicros;
+    private final String gattLatency;
+    private final long gattOperations;
+    private final long gattFailures;
+    private final long srttMillis;
+    private final long rtoMillis;
+    private final String motor;
+    private final String startupTimeline;
+    private final int mailboxDepth;
+    private final long mailboxFailures;
+    private final String mailbox;
+    private final SecuyouGattScheduler.@Nullable Stats gattStats;
+    private final SecuyouPollCoordinator.@Nullable Stats pollStats;
+
+    SecuyouLockDiagnostics(ThingUID lock, String adapter, boolean connected, DeviceState deviceState,
+            AuthenticationState authenticationState, LockingMechanismPosition position, long statusFrames,
+            long lastFrameAgeMillis, long statusGaps, long skippedPolls, long suppressedTransitions,
+            long lastAutoLockReactionMicros, long maxAutoLockReactionMicros, SecuyouLatencyHistogram gattLatency,
+            SecuyouRttEstimator rttEstimator, SecuyouMotorModel motorModel, SecuyouStartupTimeline startupTimeline,
+            SecuyouMailbox mailbox, SecuyouGattScheduler.@Nullable Stats gattStats,
+            SecuyouPollCoordinator.@Nullable Stats pollStats) {
+        this.lock = lock;
+        this.adapter = adapter;
+        this.connected = connected;
+        this.deviceState = deviceState;
+        this.authenticationState = authenticationState;
+        this.position = position;
+        this.statusFrames = statusFrames;
+        this.lastFrameAgeMillis = lastFrameAgeMillis;
+        this.statusGaps = statusGaps;
+        this.skippedPolls = skippedPolls;
+        this.suppressedTransitions = suppressedTransitions;
+        this.lastAutoLockReactionMicros = lastAutoLockReactionMicros;
+        this.maxAutoLockReactionMicros = maxAutoLockReactionMicros;
+        this.gattLatency = gattLatency.toString();
+        this.gattOperations = gattLatency.getOperations();
+        this.gattFailures = gattLatency.getFailures();
+        this.srttMillis = rttEstimator.getSrttMillis();
+        this.rtoMillis = rttEstimator.getRtoMillis();
+        this.motor = motorModel.toString();
+        this.startupTimeline = startupTimeline.toString();
+        this.mailboxDepth = mailbox.getDepth();
+        this.mailboxFailures = mailbox.getFailedCount();
+        this.mailbox = String.format("depth %d (max %d), %d tasks, %d failed, queued avg %dus max %dus, "
+                + "run avg %dus max %dus", mailboxDepth, mailbox.getMaxDepth(), mailbox.getProcessedCount(),
+                mailboxFailures, mailbox.getAverageQueueMicros(), mailbox.getMaxQueueMicros(),
+                mailbox.getAverageProcessingMicros(), mailbox.getMaxProcessingMicros());
+        this.gattStats = gattStats;
+        this.pollStats = pollStats;
+    }
+
+    public ThingUID getLock() {
+        return lock;
+    }
+
+    /**
+     * @return bridge UID of the adapter
+     */
+    public String getAdapter() {
+        return adapter;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public DeviceState getDeviceState() {
+        return deviceState;
+    }
+
+    public AuthenticationState getAuthenticationState() {
+        return authenticationState;
+    }
+
+    public LockingMechanismPosition getPosition() {
+        return position;
+    }
+
+    public long getStatusFrames() {
+        return statusFrames;
+    }
+
+    /**
+     * @return time since the last status frame, -1 if none has been received yet
+     */
+    public long getLastFrameAgeMillis() {
+        return lastFrameAgeMillis;
+    }
+
+    /**
+     * @return times the lock started a new session between two status frames
+     */
+    public long getStatusGaps() {
+        return statusGaps;
+    }
+
+    /**
+     * @return keep-alive polls skipped because a status frame arrived within the interval
+     */
+    public long getSkippedPolls() {
+        return skippedPolls;
+    }
+
+    /**
+     * @return transient positions held back by the settle window
+     */
+    public long getSuppressedTransitions() {
+        return suppressedTransitions;
+    }
+
+    /**
+     * @return time from the handle closing to the auto lock toggle being acknowledged, -1 if it never ran
+     */
+    public long getLastAutoLockReactionMicros() {
+        return lastAutoLockReactionMicros;
+    }
+
+    public long getMaxAutoLockReactionMicros() {
+        return maxAutoLockReactionMicros;
+    }
+
+    /**
+     * @return operation count, failures and latency percentiles of the GATT operations of the lock
+     */
+    public String getGattLatency() {
+        return gattLatency;
+    }
+
+    public long getGattOperations() {
+        return gattOperations;
+    }
+
+    public long getGattFailures() {
+        return gattFailures;
+    }
+
+    public long getSrttMillis() {
+        return srttMillis;
+    }
+
+    public long getRtoMillis() {
+        return rtoMillis;
+    }
+
+    public String getMotor() {
+        return motor;
+    }
+
+    /**
+     * @return stages of the last connection from connect to ONLINE, the handshake timing
+     */
+    public String getStartupTimeline() {
+        return startupTimeline;
+    }
+
+    public int getMailboxDepth() {
+        return mailboxDepth;
+    }
+
+    public long getMailboxFailures() {
+        return mailboxFailures;
+    }
+
+    /**
+     * @return depth, task count, failures and queueing/processing time of the lock's mailbox
+     */
+    public String getMailbox() {
+        return mailbox;
+    }
+
+    /**
+     * @return queue of the adapter, null before the first operation
+     */
+    public SecuyouGattScheduler.@Nullable Stats getGattStats() {
+        return gattStats;
+    }
+
+    public SecuyouPollCoordinator.@Nullable Stats getPollStats() {
+        return pollStats;
+    }
+}
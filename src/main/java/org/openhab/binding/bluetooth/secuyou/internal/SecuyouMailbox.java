@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouMailbox} is a serial executor on top of a shared pool. All events for one lock are submitted here
+ * and run one at a time in submission order, so handler state needs no locking while different locks still run in
+ * parallel on the pool threads.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouMailbox implements Executor {
+
+    /**
+     * Max tasks run per pool dispatch before yielding the thread to other mailboxes
+     */
+    private static final int BATCH_SIZE = 32;
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouMailbox.class);
+
+    private final Executor pool;
+    private final String name;
+    private final SecuyouClock clock;
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // Metrics, only written by the thread currently draining the mailbox
+    private volatile int maxDepth;
+    private volatile long processedCount;
+    private volatile long failedCount;
+    private volatile long totalQueueNanos;
+    private volatile long maxQueueNanos;
+    private volatile long totalProcessingNanos;
+    private volatile long maxProcessingNanos;
+
+    private static class Task {
+        final Runnable runnable;
+        final long enqueuedNanos;
+
+        Task(Runnable runnable, long enqueuedNanos) {
+            this.runnable = runnable;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    public SecuyouMailbox(Executor pool, String name) {
+        this(pool, name, SecuyouClock.SYSTEM);
+    }
+
+    /**
+     * @param clock time source of the queue and processing time metrics
+     */
+    SecuyouMailbox(Executor pool, String name, SecuyouClock clock) {
+        this.pool = pool;
+        this.name = name;
+        this.clock = clock;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        queue.add(new Task(command, clock.nanoTime()));
+        int currentDepth = depth.incrementAndGet();
+        if (currentDepth > maxDepth) {
+            // Racy but good enough for a high watermark
+            maxDepth = currentDepth;
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                pool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                logger.debug("Mailbox {} could not be scheduled, pool is shut down", name);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Task task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                depth.decrementAndGet();
+                long start = clock.nanoTime();
+                try {
+                    task.runnable.run();
+                } catch (RuntimeException e) {
+                    failedCount++;
+                    logger.warn("Unhandled exception processing event for {}", name, e);
+                }
+                record(start - task.enqueuedNanos, clock.nanoTime() - start);
+            }
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private void record(long queueNanos, long processingNanos) {
+        processedCount++;
+        totalQueueNanos += queueNanos;
+        totalProcessingNanos += processingNanos;
+        if (queueNanos > maxQueueNanos) {
+            maxQueueNanos = queueNanos;
+        }
+        if (processingNanos > maxProcessingNanos) {
+            maxProcessingNanos = processingNanos;
+        }
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    /**
+     * @return number of tasks that threw an unhandled exception
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public long getAverageQueueMicros() {
+        long count = processedCount;
+        return count == 0 ? 0 : totalQueueNanos / count / 1000;
+    }
+
+    public long getMaxQueueMicros() {
+        return maxQueueNanos / 1000;
+    }
+
+    public long getAverageProcessingMicros() {
+        long count = processedCount;
+        return count == 0 ? 0 : totalProcessingNanos / count / 1000;
+    }
+
+    public long getMaxProcessingMicros() {
+        return maxProcessingNanos / 1000;
+    }
+
+    @Override
+    public String toString() {
+        return "SecuyouMailbox{" + "name='" + name + '\'' + ", depth=" + getDepth() + ", maxDepth=" + maxDepth
+                + ", processed=" + processedCount + ", failed=" + failedCount + ", avgQueueMicros="
+                + getAverageQueueMicros() + ", maxQueueMicros=" + getMaxQueueMicros() + ", avgProcessingMicros="
+                + getAverageProcessingMicros() + ", maxProcessingMicros=" + getMaxProcessingMicros() + '}';
+    }
+}
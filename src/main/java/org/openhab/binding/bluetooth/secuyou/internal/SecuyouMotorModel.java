@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+
+/**
+ * The {@link SecuyouMotorModel} learns how long the motor of one lock takes from LOCKING_OPERATION_IN_PROGRESS to a
+ * final position, smoothed the same way as {@link SecuyouRttEstimator}, and how often operations end LOCKED or
+ * UNLOCKED. Until enough operations have been seen the configured settle window is used as is.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouMotorModel {
+
+    static final int MIN_SAMPLES = 3;
+    static final long MIN_DEADLINE_MILLIS = 1000;
+    static final long MAX_DEADLINE_MILLIS = 30_000;
+
+    /**
+     * On top of four deviations, a motor with very regular timing still gets some room for a slow notification
+     */
+    static final long DEADLINE_SLACK_MILLIS = 500;
+
+    /**
+     * Share of operations that must have ended in one position before an operation of unknown direction is expected
+     * to end there too
+     */
+    static final double DOMINANT_OUTCOME_SHARE = 0.75;
+
+    private static final long NO_SAMPLE = -1;
+
+    private long meanNanos = NO_SAMPLE;
+    private long deviationNanos;
+    private long sampleCount;
+    private long lockedOutcomes;
+    private long unlockedOutcomes;
+
+    public synchronized void reset() {
+        meanNanos = NO_SAMPLE;
+        deviationNanos = 0;
+        sampleCount = 0;
+        lockedOutcomes = 0;
+        unlockedOutcomes = 0;
+    }
+
+    /**
+     * Record how long an operation took, from the first LOCKING_OPERATION_IN_PROGRESS to the final position
+     */
+    public synchronized void sample(long durationNanos) {
+        if (meanNanos == NO_SAMPLE) {
+            meanNanos = durationNanos;
+            deviationNanos = durationNanos / 2;
+        } else {
+            // alpha = 1/8, beta = 1/4
+            deviationNanos = (3 * deviationNanos + Math.abs(meanNanos - durationNanos)) / 4;
+            meanNanos = (7 * meanNanos + durationNanos) / 8;
+        }
+        sampleCount++;
+    }
+
+    public synchronized void recordOutcome(LockingMechanismPosition position) {
+        if (position == LockingMechanismPosition.LOCKED) {
+            lockedOutcomes++;
+        } else if (position == LockingMechanismPosition.UNLOCKED) {
+            unlockedOutcomes++;
+        }
+    }
+
+    /**
+     * A toggle from a known position ends in the other one. From an unknown position, the outcome is only predictable
+     * if this lock reports almost all of its running operations in one direction.
+     *
+     * @return the position an operation started from the given position is expected to end in, UNKNOWN if unclear
+     */
+    public synchronized LockingMechanismPosition getExpectedOutcome(LockingMechanismPosition start) {
+        if (start == LockingMechanismPosition.LOCKED) {
+            return LockingMechanismPosition.UNLOCKED;
+        } else if (start == LockingMechanismPosition.UNLOCKED) {
+            return LockingMechanismPosition.LOCKED;
+        }
+        long outcomes = lockedOutcomes + unlockedOutcomes;
+        if (outcomes < MIN_SAMPLES) {
+            return LockingMechanismPosition.UNKNOWN;
+        } else if (lockedOutcomes >= DOMINANT_OUTCOME_SHARE * outcomes) {
+            return LockingMechanismPosition.LOCKED;
+        } else if (unlockedOutcomes >= DOMINANT_OUTCOME_SHARE * outcomes) {
+            return LockingMechanismPosition.UNLOCKED;
+        }
+        return LockingMechanismPosition.UNKNOWN;
+    }
+
+    public synchronized boolean isLearned() {
+        return sampleCount >= MIN_SAMPLES;
+    }
+
+    /**
+     * @return when most operations have finished, the time for a single status read
+     */
+    public synchronized long getExpectedCompletionMillis(long defaultMillis) {
+        return isLearned() ? TimeUnit.NANOSECONDS.toMillis(meanNanos + deviationNanos) : defaultMillis;
+    }
+
+    /**
+     * @return how long an operation may take before it is clearly out of range
+     */
+    public synchronized long getDeadlineMillis(long defaultMillis) {
+        if (!isLearned()) {
+            return defaultMillis;
+        }
+        long deadlineMillis = TimeUnit.NANOSECONDS.toMillis(meanNanos + 4 * deviationNanos) + DEADLINE_SLACK_MILLIS;
+        return Math.max(MIN_DEADLINE_MILLIS, Math.min(MAX_DEADLINE_MILLIS, deadlineMillis));
+    }
+
+    /**
+     * @return smoothed operation time, or -1 if nothing has been measured yet
+     */
+    public synchronized long getMeanMillis() {
+        return meanNanos == NO_SAMPLE ? -1 : TimeUnit.NANOSECONDS.toMillis(meanNanos);
+    }
+
+    public synchronized long getDeviationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(deviationNanos);
+    }
+
+    public synchronized long getSampleCount() {
+        return sampleCount;
+    }
+
+    public synchronized long getLockedOutcomes() {
+        return lockedOutcomes;
+    }
+
+    public synchronized long getUnlockedOutcomes() {
+        return unlockedOutcomes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "mean=" + getMeanMillis() + "ms, deviation=" + getDeviationMillis() + "ms, samples=" + sampleCount
+                + ", locked=" + lockedOutcomes + ", unlocked=" + unlockedOutcomes;
+    }
+}
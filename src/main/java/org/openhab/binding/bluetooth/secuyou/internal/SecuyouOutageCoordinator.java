@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.thing.ThingUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouOutageCoordinator} tells a lock that lost its connection apart from an adapter that went down.
+ * When most locks on one adapter are disconnected at the time their grace period expires, the adapter is considered
+ * down: the fleet sees a single transition, the OFFLINE/UNDEF updates of the locks are published in rate limited
+ * batches instead of all at once, and once the adapter is back the handshakes are staggered so that the locks do not
+ * all compete for the radio at the same moment.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouOutageCoordinator {
+
+    /**
+     * Fewer locks than this on an adapter are handled one by one
+     */
+    static final int MIN_OUTAGE_LOCKS = 3;
+    static final int OFFLINE_BATCH_SIZE = 8;
+    static final long OFFLINE_BATCH_INTERVAL_MILLIS = 250;
+    static final long RECOVERY_STAGGER_MILLIS = 2000;
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouOutageCoordinator.class);
+
+    public interface Participant {
+        /**
+         * Publish OFFLINE and UNDEF for the lock. Called from the batch pass, must hand off to the lock's own executor.
+         */
+        void markOffline(String adapter);
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final SecuyouFleetRegistry fleetRegistry;
+    private final Map<String, Adapter> adapters = new HashMap<>();
+
+    private static class Adapter {
+        final Map<ThingUID, Participant> members = new HashMap<>();
+        final Set<ThingUID> disconnected = new HashSet<>();
+        final Set<ThingUID> pendingOffline = new LinkedHashSet<>();
+        final Set<ThingUID> markedOffline = new HashSet<>();
+        boolean outage;
+        long nextHandshakeNanos;
+        @Nullable
+        ScheduledFuture<?> batchJob;
+    }
+
+    public SecuyouOutageCoordinator(ScheduledExecutorService scheduler, SecuyouFleetRegistry fleetRegistry) {
+        this.scheduler = scheduler;
+        this.fleetRegistry = fleetRegistry;
+    }
+
+    public synchronized void register(String adapter, ThingUID lock, Participant participant) {
+        adapters.computeIfAbsent(adapter, key -> new Adapter()).members.put(lock, participant);
+    }
+
+    public synchronized void unregister(String adapter, ThingUID lock) {
+        Adapter state = adapters.get(adapter);
+        if (state != null) {
+            state.members.remove(lock);
+            state.disconnected.remove(lock);
+            state.pendingOffline.remove(lock);
+            state.markedOffline.remove(lock);
+            if (state.members.isEmpty()) {
+                cancelBatch(state);
+                adapters.remove(adapter);
+            }
+        }
+    }
+
+    public synchronized void disconnected(String adapter, ThingUID lock) {
+        Adapter state = adapters.get(adapter);
+        if (state != null && state.members.containsKey(lock)) {
+            state.disconnected.add(lock);
+        }
+    }
+
+    public synchronized void connected(String adapter, ThingUID lock) {
+        Adapter state = adapters.get(adapter);
+        if (state == null) {
+            return;
+        }
+        state.disconnected.remove(lock);
+        // Back before its batch came up, nothing to publish
+        state.pendingOffline.remove(lock);
+        state.markedOffline.remove(lock);
+        if (state.outage && state.disconnected.isEmpty()) {
+            logger.info("All locks on adapter {} reconnected, outage over", adapter);
+            state.outage = false;
+        }
+    }
+
+    /**
+     * The disconnect grace period of a lock has expired
+     *
+     * @return true if the adapter is down and the OFFLINE transition is taken care of by the coordinator, false if the
+     *         lock should go OFFLINE on its own
+     */
+    public synchronized boolean offerOffline(String adapter, ThingUID lock) {
+        Adapter state = adapters.get(adapter);
+        if (state == null || !state.disconnected.contains(lock)) {
+            return false;
+        }
+        if (!state.outage) {
+            int down = state.disconnected.size();
+            // Three quarters or more of the locks gone at once is the adapter, not the locks
+            if (down < MIN_OUTAGE_LOCKS || down * 4 < state.members.size() * 3) {
+                return false;
+            }
+            logger.warn("{} of {} locks on adapter {} disconnected, treating as adapter outage", down,
+                    state.members.size(), adapter);
+            state.outage = true;
+            fleetRegistry.markUnavailable(state.disconnected);
+            state.pendingOffline.addAll(state.disconnected);
+            scheduleBatch(adapter, state, 0);
+        } else if (!state.markedOffline.contains(lock) && state.pendingOffline.add(lock)) {
+            // Disconnected after the outage was detected
+            fleetRegistry.markUnavailable(Set.of(lock));
+            scheduleBatch(adapter, state, 0);
+        }
+        return true;
+    }
+
+    public synchronized boolean isOutage(String adapter) {
+        Adapter state = adapters.get(adapter);
+        return state != null && state.outage;
+    }
+
+    /**
+     * Reserve a slot for a handshake. While the adapter recovers from an outage, handshakes are spread out by
+     * {@link #RECOVERY_STAGGER_MILLIS}.
+     *
+     * @return milliseconds to wait before starting the handshake
+     */
+    public synchronized long admitHandshake(String adapter, long nowNanos) {
+        Adapter state = adapters.get(adapter);
+        if (state == null || !state.outage) {
+            return 0;
+        }
+        long slot = Math.max(nowNanos, state.nextHandshakeNanos);
+        state.nextHandshakeNanos = slot + TimeUnit.MILLISECONDS.toNanos(RECOVERY_STAGGER_MILLIS);
+        return TimeUnit.NANOSECONDS.toMillis(slot - nowNanos);
+    }
+
+    public synchronized void dispose() {
+        adapters.values().forEach(this::cancelBatch);
+        adapters.clear();
+    }
+
+    private void scheduleBatch(String adapter, Adapter state, long delayMillis) {
+        if (state.batchJob == null) {
+            state.batchJob = scheduler.schedule(() -> runBatch(adapter), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized void runBatch(String adapter) {
+        Adapter state = adapters.get(adapter);
+        if (state == null) {
+            return;
+        }
+        state.batchJob = null;
+        Iterator<ThingUID> iterator = state.pendingOffline.iterator();
+        for (int i = 0; i < OFFLINE_BATCH_SIZE && iterator.hasNext(); i++) {
+            ThingUID lock = iterator.next();
+            iterator.remove();
+            state.markedOffline.add(lock);
+            Participant participant = state.members.get(lock);
+            if (participant != null) {
+                participant.markOffline(adapter);
+            }
+        }
+        if (!state.pendingOffline.isEmpty()) {
+            scheduleBatch(adapter, state, OFFLINE_BATCH_INTERVAL_MILLIS);
+        }
+    }
+
+    private void cancelBatch(Adapter state) {
+        ScheduledFuture<?> job = state.batchJob;
+        if (job != null) {
+            job.cancel(false);
+            state.batchJob = null;
+        }
+    }
+}
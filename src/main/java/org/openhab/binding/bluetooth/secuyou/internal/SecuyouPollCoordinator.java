@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouPollCoordinator} lines up the keep-alive polls of all locks on one adapter into shared windows.
+ * Instead of every lock polling at its own offset, the adapter wakes up once per window (with a little jitter so that
+ * adapters do not synchronize), polls every lock that is due back to back and stays quiet until the next window. A poll
+ * is run in the window closest to its due time, so it is never more than half a window early or late.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouPollCoordinator {
+
+    static final long DEFAULT_WINDOW_MILLIS = 10_000;
+    static final long DEFAULT_MAX_JITTER_MILLIS = 1_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouPollCoordinator.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final SecuyouClock clock;
+    private final long windowNanos;
+    private final long maxJitterNanos;
+    private final Map<String, Adapter> adapters = new HashMap<>();
+
+    /**
+     * Handle for one registered lock, cancel when the lock stops polling
+     */
+    public interface Registration {
+        void cancel();
+    }
+
+    public SecuyouPollCoordinator(ScheduledExecutorService scheduler) {
+        this(scheduler, SecuyouClock.SYSTEM, DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_JITTER_MILLIS);
+    }
+
+    SecuyouPollCoordinator(ScheduledExecutorService scheduler, long windowMillis, long maxJitterMillis) {
+        this(scheduler, SecuyouClock.SYSTEM, windowMillis, maxJitterMillis);
+    }
+
+    SecuyouPollCoordinator(ScheduledExecutorService scheduler, SecuyouClock clock, long windowMillis,
+            long maxJitterMillis) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxJitterNanos = TimeUnit.MILLISECONDS.toNanos(maxJitterMillis);
+    }
+
+    /**
+     * Poll every interval in the windows of the given adapter
+     *
+     * @param adapter key of the radio the lock is polled through, the bridge UID
+     * @param poll called from the window task, must hand the actual work off to the lock's own executor
+     */
+    public synchronized Registration register(String adapter, long intervalMillis, Runnable poll) {
+        Adapter windows = adapters.computeIfAbsent(adapter, Adapter::new);
+        Slot slot = new Slot(windows, TimeUnit.MILLISECONDS.toNanos(intervalMillis), poll,
+                clock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMillis));
+        windows.slots.add(slot);
+        if (windows.job == null) {
+            windows.origin = clock.nanoTime();
+            windows.scheduleNext(windows.origin);
+        }
+        return slot;
+    }
+
+    public synchronized @Nullable Stats getStats(String adapter) {
+        Adapter windows = adapters.get(adapter);
+        return windows == null ? null : windows.stats();
+    }
+
+    public synchronized Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new HashMap<>();
+        adapters.forEach((key, windows) -> stats.put(key, windows.stats()));
+        return stats;
+    }
+
+    public synchronized void dispose() {
+        adapters.values().forEach(Adapter::cancel);
+        adapters.clear();
+    }
+
+    /**
+     * Run one window: collect the polls due before the middle of the next window and run them back to back
+     *
+     * @return number of polls run
+     */
+    synchronized int runWindow(String adapter, long nowNanos) {
+        Adapter windows = adapters.get(adapter);
+        return windows == null ? 0 : windows.runWindow(nowNanos);
+    }
+
+    private class Slot implements Registration {
+        final Adapter adapter;
+        final long intervalNanos;
+        final Runnable poll;
+        long dueNanos;
+
+        Slot(Adapter adapter, long intervalNanos, Runnable poll, long dueNanos) {
+            this.adapter = adapter;
+            this.intervalNanos = intervalNanos;
+            this.poll = poll;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (SecuyouPollCoordinator.this) {
+                adapter.slots.remove(this);
+                if (adapter.slots.isEmpty()) {
+                    adapter.cancel();
+                    adapters.remove(adapter.name);
+                }
+            }
+        }
+    }
+
+    private class Adapter {
+        final String name;
+        final List<Slot> slots = new ArrayList<>();
+        long origin;
+        @Nullable
+        ScheduledFuture<?> job;
+
+        long windows;
+        long busyWindows;
+        long polls;
+        long totalLatenessNanos;
+        long maxLatenessNanos;
+
+        Adapter(String name) {
+            this.name = name;
+        }
+
+        void scheduleNext(long nowNanos) {
+            long nextWindow = origin + ((nowNanos - origin) / windowNanos + 1) * windowNanos;
+            long jitter = maxJitterNanos > 0 ? ThreadLocalRandom.current().nextLong(maxJitterNanos) : 0;
+            job = scheduler.schedule(this::onWindow, nextWindow + jitter - nowNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void onWindow() {
+            synchronized (SecuyouPollCoordinator.this) {
+                if (job == null) {
+                    return;
+                }
+                long now = clock.nanoTime();
+                runWindow(now);
+                scheduleNext(now);
+            }
+        }
+
+        int runWindow(long nowNanos) {
+            windows++;
+            long horizon = nowNanos + windowNanos / 2;
+            int count = 0;
+            for (Slot slot : slots) {
+                if (slot.dueNanos > horizon) {
+                    continue;
+                }
+                long lateness = Math.max(0, nowNanos - slot.dueNanos);
+                totalLatenessNanos += lateness;
+                maxLatenessNanos = Math.max(maxLatenessNanos, lateness);
+                slot.dueNanos = nowNanos + slot.intervalNanos;
+                count++;
+                try {
+                    slot.poll.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to start poll on adapter {}", name, e);
+                }
+            }
+            if (count > 0) {
+                busyWindows++;
+                polls += count;
+                logger.debug("Polled {} of {} locks on adapter {}, {}", count, slots.size(), name, stats());
+            }
+            return count;
+        }
+
+        void cancel() {
+            ScheduledFuture<?> current = job;
+            if (current != null) {
+                current.cancel(false);
+                job = null;
+            }
+        }
+
+        Stats stats() {
+            return new Stats(slots.size(), windows, busyWindows, polls,
+                    polls == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatenessNanos / polls),
+                    TimeUnit.NANOSECONDS.toMillis(maxLatenessNanos));
+        }
+    }
+
+    /**
+     * Window statistics of one adapter. Utilisation is the share of windows the adapter was woken up for polls, a
+     * low utilisation with a high batch size means the radio is idle most of the time. Staleness is how late polls ran
+     * compared to their due time.
+     */
+    public static class Stats {
+        private final int locks;
+        private final long windows;
+        private final long busyWindows;
+        private final long polls;
+        private final long averageStalenessMillis;
+        private final long maxStalenessMillis;
+
+        Stats(int locks, long windows, long busyWindows, long polls, long averageStalenessMillis,
+                long maxStalenessMillis) {
+            this.locks = locks;
+            this.windows = windows;
+            this.busyWindows = busyWindows;
+            this.polls = polls;
+            this.averageStalenessMillis = averageStalenessMillis;
+            this.maxStalenessMillis = maxStalenessMillis;
+        }
+
+        public int getLocks() {
+            return locks;
+        }
+
+        public long getPolls() {
+            return polls;
+        }
+
+        public double getUtilisation() {
+            return windows == 0 ? 0 : (double) busyWindows / windows;
+        }
+
+        public double getAverageBatchSize() {
+            return busyWindows == 0 ? 0 : (double) polls / busyWindows;
+        }
+
+        public long getAverageStalenessMillis() {
+            return averageStalenessMillis;
+        }
+
+        public long getMaxStalenessMillis() {
+            return maxStalenessMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("locks=%d, windows=%d, utilisation=%.2f, batch=%.1f, staleness avg=%dms max=%dms",
+                    locks, windows, getUtilisation(), getAverageBatchSize(), averageStalenessMillis,
+                    maxStalenessMillis);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link SecuyouRttEstimator} estimates the round trip time of GATT operations for one lock the way TCP does (RFC
+ * 6298), and derives the retransmission timeout (RTO) that the handler's waits and grace periods are scaled from.
+ * Disconnects are tracked as well, a lock that keeps dropping the connection gets a longer disconnect grace period.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouRttEstimator {
+
+    static final long INITIAL_RTO_MILLIS = 1000;
+    static final long MIN_RTO_MILLIS = 200;
+    static final long MAX_RTO_MILLIS = 30_000;
+
+    /**
+     * Disconnects within this window count as flapping
+     */
+    static final long FLAP_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    static final int MAX_FLAP_COUNT = 8;
+    /**
+     * A BLE reconnect takes seconds however fast the GATT round trips are
+     */
+    static final long MIN_GRACE_MILLIS = 3000;
+    static final long MAX_GRACE_MILLIS = 60_000;
+
+    private static final long NO_SAMPLE = -1;
+
+    private long srttNanos = NO_SAMPLE;
+    private long rttVarNanos;
+    private long rtoNanos = TimeUnit.MILLISECONDS.toNanos(INITIAL_RTO_MILLIS);
+    private long sampleCount;
+
+    private final long[] disconnectNanos = new long[MAX_FLAP_COUNT];
+    private int disconnectIndex;
+    private int disconnectCount;
+
+    public synchronized void reset() {
+        srttNanos = NO_SAMPLE;
+        rttVarNanos = 0;
+        rtoNanos = TimeUnit.MILLISECONDS.toNanos(INITIAL_RTO_MILLIS);
+        sampleCount = 0;
+        disconnectIndex = 0;
+        disconnectCount = 0;
+    }
+
+    /**
+     * Record the time a successful GATT operation took
+     */
+    public synchronized void sample(long rttNanos) {
+        if (srttNanos == NO_SAMPLE) {
+            srttNanos = rttNanos;
+            rttVarNanos = rttNanos / 2;
+        } else {
+            // alpha = 1/8, beta = 1/4
+            rttVarNanos = (3 * rttVarNanos + Math.abs(srttNanos - rttNanos)) / 4;
+            srttNanos = (7 * srttNanos + rttNanos) / 8;
+        }
+        sampleCount++;
+        rtoNanos = clamp(srttNanos + 4 * rttVarNanos);
+    }
+
+    /**
+     * A GATT operation failed or timed out, back off until the next successful sample
+     */
+    public synchronized void backoff() {
+        rtoNanos = clamp(rtoNanos * 2);
+    }
+
+    private static long clamp(long nanos) {
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(MIN_RTO_MILLIS),
+                Math.min(TimeUnit.MILLISECONDS.toNanos(MAX_RTO_MILLIS), nanos));
+    }
+
+    public synchronized long getRtoMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(rtoNanos);
+    }
+
+    /**
+     * @return smoothed round trip time, or -1 if nothing has been measured yet
+     */
+    public synchronized long getSrttMillis() {
+        return srttNanos == NO_SAMPLE ? -1 : TimeUnit.NANOSECONDS.toMillis(srttNanos);
+    }
+
+    public synchronized long getRttVarMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(rttVarNanos);
+    }
+
+    public synchronized long getSampleCount() {
+        return sampleCount;
+    }
+
+    public synchronized void recordDisconnect(long nowNanos) {
+        disconnectNanos[disconnectIndex] = nowNanos;
+        disconnectIndex = (disconnectIndex + 1) % disconnectNanos.length;
+        disconnectCount = Math.min(disconnectCount + 1, disconnectNanos.length);
+    }
+
+    /**
+     * @return number of disconnects within the flap window, including the latest
+     */
+    public synchronized int getRecentDisconnects(long nowNanos) {
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(FLAP_WINDOW_MILLIS);
+        int recent = 0;
+        for (int i = 0; i < disconnectCount; i++) {
+            if (nowNanos - disconnectNanos[i] <= windowNanos) {
+                recent++;
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * How long to wait for a reconnect before reporting the lock as gone. Three RTOs but at least
+     * {@link #MIN_GRACE_MILLIS} for a stable lock, stretched by the number of recent disconnects so that a flapping
+     * lock does not bounce between ONLINE and OFFLINE.
+     */
+    public synchronized long getDisconnectGraceMillis(long nowNanos) {
+        int flaps = Math.max(0, getRecentDisconnects(nowNanos) - 1);
+        long stableGrace = Math.max(MIN_GRACE_MILLIS, 3 * getRtoMillis());
+        return Math.min(MAX_GRACE_MILLIS, stableGrace * (1L << flaps));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "srtt=" + getSrttMillis() + "ms, rttvar=" + getRttVarMillis() + "ms, rto=" + getRtoMillis()
+                + "ms, samples=" + sampleCount;
+    }
+}
@@ -12,15 +12,21 @@
  */
 package org.openhab.binding.bluetooth.secuyou.internal;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import javax.xml.bind.DatatypeConverter;
@@ -28,14 +34,24 @@ import javax.xml.bind.DatatypeConverter;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.bluetooth.BluetoothCharacteristic;
 import org.openhab.binding.bluetooth.BluetoothDevice;
-import org.openhab.binding.bluetooth.BluetoothService;
 import org.openhab.binding.bluetooth.ConnectedBluetoothHandler;
 import org.openhab.binding.bluetooth.notification.BluetoothConnectionStatusNotification;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouGattProfile.Role;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouGattScheduler.Priority;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouPollCoordinator.Registration;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouStartupTimeline.Stage;
+import org.openhab.binding.bluetooth.secuyou.internal.action.SecuyouSmartLockActions;
 import org.openhab.binding.bluetooth.secuyou.internal.state.AuthenticationState;
 import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
 import org.openhab.binding.bluetooth.secuyou.internal.state.DeviceState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.HandleState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockEvent;
 import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+import org.openhab.binding.bluetooth.secuyou.internal.state.SecuyouSmartLockSnapshot;
 import org.openhab.binding.bluetooth.secuyou.internal.state.SecuyouSmartLockState;
+import org.openhab.core.OpenHAB;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.OpenClosedType;
 import org.openhab.core.library.types.StringType;
@@ -43,6 +59,7 @@ import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
+import org.openhab.core.thing.binding.ThingHandlerService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.RefreshType;
 import org.openhab.core.types.UnDefType;
@@ -56,18 +73,139 @@ import org.slf4j.LoggerFactory;
  */
 public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
 
-    private final Logger logger = LoggerFactory.getLogger(SecuyouSmartLockHandler.class);
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouSmartLockHandler.class);
 
-    private Optional<SecuyouConfiguration> configuration = Optional.empty();
+    private SecuyouConfiguration configuration = new SecuyouConfiguration();
 
-    private Map<String, String> deviceProps = new HashMap<>();
+    /**
+     * Reset rather than replaced on reconnect, so the handler keeps a single state instance for its lifetime
+     */
+    private final SecuyouSmartLockState lock = new SecuyouSmartLockState(false);
+    private @Nullable Registration keepAliveRegistration;
+    private @Nullable ScheduledFuture<?> delayedDisconnectJob;
+    private @Nullable ScheduledFuture<?> reconnectJob;
+    private final SecuyouCircuitBreaker circuitBreaker = new SecuyouCircuitBreaker();
+    private final SecuyouRttEstimator rttEstimator = new SecuyouRttEstimator();
+    private final SecuyouMotorModel motorModel = new SecuyouMotorModel();
+    private final SecuyouLatencyHistogram gattLatency = new SecuyouLatencyHistogram();
 
-    private SecuyouSmartLockState lock;
-    private ScheduledFuture<?> keepAliveJob;
-    private ScheduledFuture<?> delayedDisconnectJob;
+    /**
+     * All connection events, characteristic updates, future completions, commands and timers are processed through
+     * this mailbox, one at a time and in order. Handler state is only touched from mailbox tasks.
+     */
+    private final SecuyouMailbox mailbox;
 
-    public SecuyouSmartLockHandler(Thing thing) {
+    /**
+     * Resolved after service discovery, cleared when the connection drops
+     */
+    private @Nullable SecuyouGattProfile profile;
+
+    private final SecuyouConfirmations confirmations;
+
+    private final SecuyouStartupTimeline startupTimeline;
+    private boolean propertiesRead = false;
+    private boolean propertiesReadInProgress = false;
+    /**
+     * Timeouts of the property reads that have been sent and not answered yet
+     */
+    private final Map<UUID, ScheduledFuture<?>> propertyReadTimeouts = new HashMap<>(8);
+    private static final long PROPERTIES_READ_DELAY_SECONDS = 2;
+    private static final long PROPERTIES_READ_TIMEOUT_RTOS = 10;
+
+    private @Nullable SecuyouStateStore stateStore;
+    private @Nullable SecuyouHistoryStore historyStore;
+
+    private final SecuyouFleetRegistry fleetRegistry;
+    private final SecuyouPollCoordinator pollCoordinator;
+    private final SecuyouOutageCoordinator outageCoordinator;
+    private final SecuyouGattScheduler gattScheduler;
+    private final SecuyouClock clock;
+    private final ScheduledExecutorService timer;
+    private String adapterKey = "";
+    private boolean connected;
+    /**
+     * Reported to the fleet instead of transient positions, UNKNOWN until the lock has reported LOCKED or UNLOCKED
+     */
+    private LockingMechanismPosition lastSettledPosition = LockingMechanismPosition.UNKNOWN;
+    /**
+     * The stale channel is only set OFF on the first live frame after a restore or going offline
+     */
+    private boolean staleOffPublished;
+
+    /**
+     * A bolt move within this time after a toggle was sent is attributed to openHAB
+     */
+    private static final long COMMAND_ATTRIBUTION_MILLIS = 30_000;
+    private boolean toggleSent;
+    private long toggleSentNanos;
+
+    private long lastStatusFrameNanos;
+    private long statusFrames;
+    private long statusGaps;
+    private long skippedPolls;
+    /**
+     * Keep-alive polls stretch up to this many intervals while the session tokens show no gaps
+     */
+    static final int MAX_KEEP_ALIVE_STRETCH = 4;
+    private int keepAliveStretch = 1;
+
+    /**
+     * Arrival time of the notification currently being processed
+     */
+    private long frameReceivedNanos;
+    private @Nullable ScheduledFuture<?> autoLockJob;
+    private long lastAutoLockReactionMicros = -1;
+    private long maxAutoLockReactionMicros = -1;
+
+    private @Nullable ScheduledFuture<?> settleJob;
+    private boolean settleWindowExpired = false;
+    private long suppressedTransitions;
+
+    private boolean motorRunning;
+    private long motorStartNanos;
+    private boolean motorReadIssued;
+    private @Nullable ScheduledFuture<?> motorReadJob;
+    /**
+     * Where the running operation should end, from the position it started in or the outcomes learned so far
+     */
+    private LockingMechanismPosition expectedMotorOutcome = LockingMechanismPosition.UNKNOWN;
+
+    private Instant lastRescueOperation = Instant.EPOCH;
+    private boolean unknownLockStatusRescueOperationInProgress = false;
+    /**
+     * Lower bound for the pause between rescue steps, the bolt needs time to move regardless of link speed
+     */
+    static final long MIN_RESCUE_STEP_DELAY_MILLIS = 1000;
+    private @Nullable ScheduledFuture<?> rescueTimeoutJob;
+    private @Nullable ScheduledFuture<?> rescueStepJob;
+    private LockingMechanismPosition rescueTarget = LockingMechanismPosition.UNKNOWN;
+
+    public SecuyouSmartLockHandler(Thing thing, SecuyouFleetRegistry fleetRegistry,
+            SecuyouPollCoordinator pollCoordinator, SecuyouOutageCoordinator outageCoordinator,
+            SecuyouGattScheduler gattScheduler) {
+        this(thing, fleetRegistry, pollCoordinator, outageCoordinator, gattScheduler, SecuyouClock.SYSTEM,
+                ThreadPoolManager.getScheduledPool("thingHandler"));
+    }
+
+    /**
+     * @param clock time source for all timing decisions
+     * @param timer runs the mailbox and all timers of the handler, must follow the clock
+     */
+    SecuyouSmartLockHandler(Thing thing, SecuyouFleetRegistry fleetRegistry, SecuyouPollCoordinator pollCoordinator,
+            SecuyouOutageCoordinator outageCoordinator, SecuyouGattScheduler gattScheduler, SecuyouClock clock,
+            ScheduledExecutorService timer) {
         super(thing);
+        this.fleetRegistry = fleetRegistry;
+        this.pollCoordinator = pollCoordinator;
+        this.outageCoordinator = outageCoordinator;
+        this.gattScheduler = gattScheduler;
+        this.clock = clock;
+        this.timer = timer;
+        this.confirmations = new SecuyouConfirmations(timer);
+        lastStatusFrameNanos = clock.nanoTime();
+        frameReceivedNanos = lastStatusFrameNanos;
+        this.startupTimeline = new SecuyouStartupTimeline(clock);
+        mailbox = new SecuyouMailbox(timer, String.valueOf(thing.getUID()), clock);
     }
 
     @Override
@@ -76,59 +214,308 @@ public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
         super.initialize();
         updateStatus(ThingStatus.UNKNOWN, ThingStatusDetail.CONFIGURATION_PENDING, "Init started");
 
-        configuration = Optional.of(getConfigAs(SecuyouConfiguration.class));
-        logger.debug("Using configuration: {}", configuration.get());
-        lock = new SecuyouSmartLockState(configuration.get().treatLockingInProgressAsLocked);
+        configuration = getConfigAs(SecuyouConfiguration.class);
+        logger.debug("Using configuration: {}", configuration);
+        lock.reset(configuration.treatLockingInProgressAsLocked);
+        // New configuration, give the lock a fresh chance
+        circuitBreaker.reset();
+        rttEstimator.reset();
+        motorModel.reset();
+        gattLatency.reset();
+        propertiesRead = false;
+        propertiesReadInProgress = false;
+        adapterKey = getAdapterKey();
+        outageCoordinator.register(adapterKey, getThing().getUID(), this::onAdapterOutage);
 
-        if (device.getConnectionState() != BluetoothDevice.ConnectionState.CONNECTED) {
-            device.connect();
-        } else if (!device.isServicesDiscovered()) {
-            device.discoverServices();
-        } else {
-            initializeLock();
+        stateStore = new SecuyouStateStore(Path.of(OpenHAB.getUserDataFolder(), "secuyou"),
+                getThing().getUID().toString());
+        historyStore = new SecuyouHistoryStore(Path.of(OpenHAB.getUserDataFolder(), "secuyou"),
+                getThing().getUID().toString());
+        mailbox.execute(this::restorePersistedState);
+
+        mailbox.execute(() -> {
+            if (device.getConnectionState() != BluetoothDevice.ConnectionState.CONNECTED) {
+                connect();
+            } else if (!device.isServicesDiscovered()) {
+                device.discoverServices();
+            } else {
+                initializeLock();
+            }
+        });
+    }
+
+    /**
+     * Show the last known values while the lock is (re)connecting, flagged through the stale channel
+     */
+    private void restorePersistedState() {
+        staleOffPublished = false;
+        lastSettledPosition = LockingMechanismPosition.UNKNOWN;
+        SecuyouStateStore store = stateStore;
+        SecuyouSmartLockSnapshot snapshot = store != null ? store.load() : null;
+        if (snapshot == null) {
+            return;
+        }
+        logger.debug("Restored last known state of {} from {}: {}", address, snapshot.getTimestamp(), snapshot);
+        updateState(SecuyouBindingConstants.CHANNEL_ID_BATTERY,
+                snapshot.getBatteryStatus() == BatteryStatus.UNKNOWN ? UnDefType.UNDEF
+                        : new StringType(snapshot.getBatteryStatus().toString()));
+        updateState(SecuyouBindingConstants.CHANNEL_ID_HOMELOCK, OnOffType.from(snapshot.isHomeLockEnabled()));
+        switch (snapshot.getHandleState()) {
+            case CLOSED:
+                updateState(SecuyouBindingConstants.CHANNEL_ID_HANDLE_POSITION, OpenClosedType.CLOSED);
+                break;
+            case OPEN:
+                updateState(SecuyouBindingConstants.CHANNEL_ID_HANDLE_POSITION, OpenClosedType.OPEN);
+                break;
+            default:
+                updateState(SecuyouBindingConstants.CHANNEL_ID_HANDLE_POSITION, UnDefType.UNDEF);
+        }
+        switch (snapshot.getLockPosition()) {
+            case LOCKED:
+                updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK, OnOffType.ON);
+                break;
+            case UNLOCKED:
+                updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK, OnOffType.OFF);
+                break;
+            default:
+                updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK, UnDefType.UNDEF);
+        }
+        updateState(SecuyouBindingConstants.CHANNEL_ID_STALE, OnOffType.ON);
+        // The stored position may be days old, it does not count as locked in the fleet until the lock confirms it
+        reportToFleet(LockingMechanismPosition.UNKNOWN, snapshot.getHandleState(), snapshot.getBatteryStatus());
+    }
+
+    private void reportToFleet(LockingMechanismPosition position, HandleState handle, BatteryStatus battery) {
+        String label = getThing().getLabel();
+        fleetRegistry.update(getThing().getUID(), label != null ? label : getThing().getUID().getAsString(), position,
+                handle, battery);
+    }
+
+    /**
+     * Live data has been published, report it to the fleet and store it unless the bolt is still moving. A position
+     * held back by the settle window is not reported either, it would make the fleet aggregates flap.
+     */
+    private void persistState() {
+        if (!staleOffPublished) {
+            updateState(SecuyouBindingConstants.CHANNEL_ID_STALE, OnOffType.OFF);
+            staleOffPublished = true;
+        }
+        boolean settled = lock.getLockPosition() == LockingMechanismPosition.LOCKED
+                || lock.getLockPosition() == LockingMechanismPosition.UNLOCKED;
+        if (settled) {
+            lastSettledPosition = lock.getLockPosition();
+        }
+        reportToFleet(lastSettledPosition, lock.getHandleState(), lock.getBatteryStatus());
+        SecuyouStateStore store = stateStore;
+        if (store != null && settled) {
+            store.save(SecuyouSmartLockSnapshot.of(lock, clock.instant()));
+        }
+    }
+
+    @Override
+    public void handleRemoval() {
+        SecuyouStateStore store = stateStore;
+        if (store != null) {
+            store.delete();
+        }
+        SecuyouHistoryStore history = historyStore;
+        if (history != null) {
+            history.delete();
         }
+        super.handleRemoval();
+    }
+
+    @Override
+    public Collection<Class<? extends ThingHandlerService>> getServices() {
+        return List.of(SecuyouSmartLockActions.class);
     }
 
     @Override
     public void dispose() {
-        cancelKeepAlive();
+        mailbox.execute(() -> {
+            confirmations.failAll(SecuyouCommandResult.DISCONNECTED);
+            cancelAutoLock("disposed");
+            cancelSettleWindow();
+            cancelMotorRead();
+            finishRescue();
+            cancelKeepAlive();
+            cancelDelayedDisconnect();
+            cancelReconnect();
+            cancelPropertyReadTimeouts();
+        });
+        fleetRegistry.remove(getThing().getUID());
+        outageCoordinator.unregister(adapterKey, getThing().getUID());
+        gattScheduler.cancel(adapterKey, getThing().getUID());
+        SecuyouHistoryStore history = historyStore;
+        if (history != null) {
+            mailbox.execute(history::close);
+        }
         super.dispose();
     }
 
+    SecuyouMailbox getMailbox() {
+        return mailbox;
+    }
+
+    /**
+     * Only safe to read from a mailbox task, or after the mailbox has drained
+     */
+    SecuyouSmartLockState getLockState() {
+        return lock;
+    }
+
+    /**
+     * Normally read from the thing in {@link #initialize()}
+     */
+    void setConfiguration(SecuyouConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Run a task on the mailbox after a delay
+     */
+    private ScheduledFuture<?> scheduleInMailbox(Runnable task, long delay, TimeUnit unit) {
+        return timer.schedule(() -> mailbox.execute(task), delay, unit);
+    }
+
     @Override
     public void onConnectionStateChange(BluetoothConnectionStatusNotification connectionNotification) {
         super.onConnectionStateChange(connectionNotification);
-        if (connectionNotification.getConnectionState() == BluetoothDevice.ConnectionState.DISCONNECTED) {
+        BluetoothDevice.ConnectionState connectionState = connectionNotification.getConnectionState();
+        mailbox.execute(() -> handleConnectionStateChange(connectionState));
+    }
+
+    private void handleConnectionStateChange(BluetoothDevice.ConnectionState connectionState) {
+        if (connectionState == BluetoothDevice.ConnectionState.DISCONNECTED) {
+            profile = null;
             cancelKeepAlive();
+            cancelDelayedDisconnect();
+            cancelSettleWindow();
+            cancelMotorRead();
+            motorRunning = false;
+            cancelAutoLock("connection lost");
 
-            delayedDisconnectJob = scheduler.schedule(() -> {
-                // Do not set device to OFFLINE just yet, a reconnect might come in a very short time
-                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.GONE, "Bluetooth connection to device lost");
-                // Set all channels to UNDEF
-                updateState(SecuyouBindingConstants.CHANNEL_ID_HOMELOCK, UnDefType.UNDEF);
-                updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK, UnDefType.UNDEF);
-                updateState(SecuyouBindingConstants.CHANNEL_ID_HANDLE_POSITION, UnDefType.UNDEF);
-                updateState(SecuyouBindingConstants.CHANNEL_ID_BATTERY, UnDefType.UNDEF);
-            }, 3, TimeUnit.SECONDS);
+            long now = clock.nanoTime();
+            rttEstimator.recordDisconnect(now);
+            long graceMillis = rttEstimator.getDisconnectGraceMillis(now);
+            logger.debug("Lock {} disconnected ({} times recently), waiting {}ms for reconnect", address,
+                    rttEstimator.getRecentDisconnects(now), graceMillis);
+            connected = false;
+            confirmations.failAll(SecuyouCommandResult.DISCONNECTED);
+            gattScheduler.cancel(adapterKey, getThing().getUID());
+            outageCoordinator.disconnected(adapterKey, getThing().getUID());
+            // Do not set device to OFFLINE just yet, a reconnect might come in a very short time
+            delayedDisconnectJob = scheduleInMailbox(() -> {
+                if (outageCoordinator.offerOffline(adapterKey, getThing().getUID())) {
+                    logger.debug("Lock {} is part of an outage of adapter {}, going OFFLINE with the batch", address,
+                            adapterKey);
+                    return;
+                }
+                publishOffline("Bluetooth connection to device lost");
+            }, graceMillis, TimeUnit.MILLISECONDS);
 
-        } else if (connectionNotification.getConnectionState() == BluetoothDevice.ConnectionState.CONNECTED) {
+        } else if (connectionState == BluetoothDevice.ConnectionState.CONNECTED) {
+            connected = true;
+            outageCoordinator.connected(adapterKey, getThing().getUID());
             cancelDelayedDisconnect();
+            startupTimeline.start();
+            startupTimeline.mark(Stage.CONNECTED);
 
-            // Reset state when reconnected
-            lock = new SecuyouSmartLockState(configuration.get().treatLockingInProgressAsLocked);
+            // Reset state when reconnected, the profile is resolved again once services are discovered
+            lock.reset(configuration.treatLockingInProgressAsLocked);
+            profile = null;
+            keepAliveStretch = 1;
+        }
+    }
+
+    private void publishOffline(String description) {
+        if (circuitBreaker.isOpen()) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                    circuitBreaker.describe(clock.instant()));
+        } else {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.GONE, description);
+        }
+        // Set all channels to UNDEF
+        updateState(SecuyouBindingConstants.CHANNEL_ID_HOMELOCK, UnDefType.UNDEF);
+        updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK, UnDefType.UNDEF);
+        updateState(SecuyouBindingConstants.CHANNEL_ID_HANDLE_POSITION, UnDefType.UNDEF);
+        updateState(SecuyouBindingConstants.CHANNEL_ID_BATTERY, UnDefType.UNDEF);
+        updateState(SecuyouBindingConstants.CHANNEL_ID_STALE, UnDefType.UNDEF);
+        staleOffPublished = false;
+        lastSettledPosition = LockingMechanismPosition.UNKNOWN;
+        reportToFleet(LockingMechanismPosition.UNKNOWN, HandleState.UNKNOWN, lock.getBatteryStatus());
+        SecuyouHistoryStore history = historyStore;
+        if (history != null) {
+            history.recordUnavailable(clock.instant());
         }
     }
 
+    /**
+     * Called by the {@link SecuyouOutageCoordinator} batch pass when the whole adapter is down
+     */
+    private void onAdapterOutage(String adapter) {
+        mailbox.execute(() -> {
+            if (connected) {
+                return;
+            }
+            cancelDelayedDisconnect();
+            publishOffline("Bluetooth adapter " + adapter + " unavailable");
+        });
+    }
+
+    /**
+     * Polls are not scheduled per lock but in the shared windows of the adapter, so that all locks on one radio are
+     * polled back to back
+     */
+    private void scheduleKeepAlive() {
+        cancelKeepAlive();
+        if (configuration.keepAliveSeconds > -1) {
+            logger.debug("Scheduling polling every {}s in the poll windows of {}", configuration.keepAliveSeconds,
+                    adapterKey);
+            keepAliveRegistration = pollCoordinator.register(adapterKey,
+                    TimeUnit.SECONDS.toMillis(configuration.keepAliveSeconds),
+                    () -> mailbox.execute(this::onKeepAlive));
+        }
+    }
+
+    /**
+     * Key of the radio this lock is reached through
+     */
+    String getAdapterKey() {
+        return String.valueOf(getThing().getBridgeUID());
+    }
+
+    /**
+     * Poll only if the lock has been silent for a whole interval, a recent status frame already proves that the link
+     * and notifications work. While the session tokens show no gaps, every poll doubles the interval up to
+     * {@link #MAX_KEEP_ALIVE_STRETCH}; a gap resets it and is read at once.
+     */
+    private void onKeepAlive() {
+        long silentMillis = TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - lastStatusFrameNanos);
+        long intervalMillis = TimeUnit.SECONDS.toMillis(configuration.keepAliveSeconds) * keepAliveStretch;
+        if (silentMillis < intervalMillis) {
+            skippedPolls++;
+            logger.trace("Skipping poll of {}, last status frame {}ms ago", address, silentMillis);
+            return;
+        }
+        if (lock.isTrailerTokenKnown()) {
+            keepAliveStretch = Math.min(keepAliveStretch * 2, MAX_KEEP_ALIVE_STRETCH);
+        }
+        refreshStatus();
+    }
+
     private void cancelKeepAlive() {
-        if (keepAliveJob != null && !keepAliveJob.isCancelled()) {
-            keepAliveJob.cancel(true);
-            keepAliveJob = null;
+        Registration registration = keepAliveRegistration;
+        if (registration != null) {
+            registration.cancel();
+            keepAliveRegistration = null;
         }
     }
 
     private void cancelDelayedDisconnect() {
-        if (delayedDisconnectJob != null && !delayedDisconnectJob.isCancelled()) {
-            delayedDisconnectJob.cancel(true);
+        ScheduledFuture<?> job = delayedDisconnectJob;
+        if (job != null) {
+            job.cancel(true);
             delayedDisconnectJob = null;
         }
     }
@@ -136,77 +523,150 @@ public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
     @Override
     public void onCharacteristicUpdate(BluetoothCharacteristic characteristic, byte[] value) {
         super.onCharacteristicUpdate(characteristic, value);
+        long receivedNanos = clock.nanoTime();
+        mailbox.execute(() -> {
+            frameReceivedNanos = receivedNanos;
+            handleCharacteristicUpdate(characteristic, value);
+        });
+    }
 
-        if (SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC.equals(characteristic.getUuid())) {
-            switch (lock.getDeviceState()) {
-                case KEY_GENERATION:
-                    if (lock.getAuthenticationState() == AuthenticationState.AUTHENTICATION_IN_PROGRESS) {
-                        logger.info("Received challenge from lock {}", DatatypeConverter.printHexBinary(value));
-                        lock.setChallenge(value);
-                        BluetoothCharacteristic confirmCharacteristic = device
-                                .getCharacteristic(SecuyouBindingConstants.CONFIRM_CHARACTERISTIC);
-                        if (confirmCharacteristic != null) {
-                            logger.info("Confirming challenge received to {}", confirmCharacteristic.getUuid());
-                            device.writeCharacteristic(confirmCharacteristic,
-                                    SecuyouBindingConstants.CMD_CHALLENGE_RECEIVED);
-                        }
-                    } else {
-                        handleLockStatusUpdated(value);
+    private void handleCharacteristicUpdate(BluetoothCharacteristic characteristic, byte[] value) {
+        SecuyouGattProfile currentProfile = profile;
+        Role role = currentProfile != null ? currentProfile.roleOf(characteristic)
+                : SecuyouGattProfile.roleOf(characteristic.getUuid());
+        switch (role) {
+            case LOCK_STATUS:
+                handleLockStatusCharacteristic(value);
+                break;
+            case LOCK_STATE:
+                handleLockStateCharacteristic(value);
+                break;
+            default:
+                logger.trace("Ignoring update of characteristic {} from {}", characteristic.getUuid(), address);
+        }
+    }
+
+    private void handleLockStatusCharacteristic(byte[] value) {
+        switch (lock.getDeviceState()) {
+            case KEY_GENERATION:
+                if (lock.getAuthenticationState() == AuthenticationState.AUTHENTICATION_IN_PROGRESS) {
+                    if (!lock.setChallenge(value)) {
+                        logger.debug("Ignoring malformed challenge from lock {}", address);
+                        break;
                     }
-                    break;
-                case KEY_CHECKING:
-                case KEY_CONFIRMATION:
+                    startupTimeline.mark(Stage.CHALLENGE_RECEIVED);
+                    logger.info("Received challenge from lock {}", address);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Challenge: {}", DatatypeConverter.printHexBinary(value));
+                    }
+                    BluetoothCharacteristic confirmCharacteristic = getConfirmCharacteristic();
+                    if (confirmCharacteristic != null) {
+                        logger.info("Confirming challenge received to {}", confirmCharacteristic.getUuid());
+                        writeCharacteristic(confirmCharacteristic, SecuyouBindingConstants.CMD_CHALLENGE_RECEIVED,
+                                Priority.HANDSHAKE);
+                    }
+                } else {
                     handleLockStatusUpdated(value);
-                    break;
-                default:
+                }
+                break;
+            case KEY_CHECKING:
+            case KEY_CONFIRMATION:
+                handleLockStatusUpdated(value);
+                break;
+            default:
+                if (logger.isInfoEnabled()) {
                     logger.info("Received status update {} in state {}, ", DatatypeConverter.printHexBinary(value),
                             lock.getDeviceState());
-            }
-        } else if (SecuyouBindingConstants.LOCK_STATE_CHARACTERISTIC.equals(characteristic.getUuid())) {
-            lock.setLockState(value);
-            if (lock.getAuthenticationState() == AuthenticationState.AUTHENTICATION_IN_PROGRESS) {
-                if (lock.getDeviceState() == DeviceState.KEY_CHECKING) {
-                    // Ready for pin
-                    logger.info("Lock is ready for pin to be written");
-                    try {
-                        byte[] challengeResponse = lock.generateChallengeResponse(configuration.get().pinCode,
-                                configuration.get().encryptionKey);
-                        BluetoothCharacteristic confirmCharacteristic = device
-                                .getCharacteristic(SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC);
-                        if (confirmCharacteristic != null) {
-                            device.writeCharacteristic(confirmCharacteristic, challengeResponse)
-                                    .whenComplete((respnse, ex) -> {
-                                        logger.info("Pin sent");
-                                    });
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error doing pin encryption, check pin and encryptionKey thing parameters {}",
-                                e.getMessage());
-                    }
-                } else if (lock.getDeviceState() == DeviceState.KEY_CONFIRMATION) {
-                    logger.info("Authentication complete, refreshing status");
-                    // Should now be authenticated
-                    lock.setAuthenticationState(AuthenticationState.AUTHENTICATED);
-                    refreshStatus();
-
-                    if (configuration.get().keepAliveSeconds > -1) {
-                        logger.debug("Scheduling polling every {}s", configuration.get().keepAliveSeconds);
-                        keepAliveJob = scheduler.scheduleWithFixedDelay(this::refreshStatus,
-                                configuration.get().keepAliveSeconds, configuration.get().keepAliveSeconds,
-                                TimeUnit.SECONDS);
+                }
+        }
+    }
+
+    private void handleLockStateCharacteristic(byte[] value) {
+        if (!lock.setLockState(value)) {
+            logger.debug("Ignoring malformed lock state frame from {} ({} malformed so far)", address,
+                    lock.getMalformedFrameCount());
+            return;
+        }
+        if (lock.getAuthenticationState() == AuthenticationState.AUTHENTICATION_IN_PROGRESS) {
+            if (lock.getDeviceState() == DeviceState.KEY_BLOCKING) {
+                handleAuthenticationFailure();
+            } else if (lock.getDeviceState() == DeviceState.KEY_CHECKING) {
+                // Ready for pin
+                logger.info("Lock is ready for pin to be written");
+                try {
+                    byte[] challengeResponse = lock.generateChallengeResponse(configuration.pinCode,
+                            configuration.encryptionKey);
+                    BluetoothCharacteristic confirmCharacteristic = getLockStatusCharacteristic();
+                    if (confirmCharacteristic != null) {
+                        writeCharacteristic(confirmCharacteristic, challengeResponse, Priority.HANDSHAKE)
+                                .whenCompleteAsync((respnse, ex) -> {
+                                    startupTimeline.mark(Stage.PIN_SENT);
+                                    logger.info("Pin sent");
+                                }, mailbox);
                     }
+                } catch (Exception e) {
+                    logger.error("Error doing pin encryption, check pin and encryptionKey thing parameters {}",
+                            e.getMessage());
+                }
+            } else if (lock.getDeviceState() == DeviceState.KEY_CONFIRMATION) {
+                logger.info("Authentication complete, refreshing status");
+                // Should now be authenticated
+                lock.setAuthenticationState(AuthenticationState.AUTHENTICATED);
+                startupTimeline.mark(Stage.AUTHENTICATED);
+                refreshStatus();
 
-                    updateStatus(ThingStatus.ONLINE);
+                scheduleKeepAlive();
 
-                }
+                updateStatus(ThingStatus.ONLINE);
+                onOnline();
             }
+        }
+    }
 
+    private void onOnline() {
+        if (startupTimeline.mark(Stage.ONLINE)) {
+            logger.debug("Lock {} online, startup timeline: {}, link timing: {}", address, startupTimeline,
+                    rttEstimator);
+        }
+        if (!propertiesRead) {
+            // Not needed to operate the lock, so keep them off the critical path
+            scheduleInMailbox(this::readThingProperties, PROPERTIES_READ_DELAY_SECONDS, TimeUnit.SECONDS);
         }
     }
 
+    SecuyouStartupTimeline getStartupTimeline() {
+        return startupTimeline;
+    }
+
     private void handleLockStatusUpdated(byte[] lockStatus) {
-        lock.setLockStatus(lockStatus);
+        if (!lock.setLockStatus(lockStatus)) {
+            logger.debug("Ignoring malformed status frame from {} ({} malformed so far)", address,
+                    lock.getMalformedFrameCount());
+            return;
+        }
+        startupTimeline.mark(Stage.FIRST_STATUS);
         logger.debug("Updated state: {}", lock);
+        lastStatusFrameNanos = clock.nanoTime();
+        statusFrames++;
+        if (lock.isTrailerTokenChanged()) {
+            onStatusGap();
+        }
+
+        if (lock.getAuthenticationState() == AuthenticationState.AUTHENTICATED) {
+            if (!lock.isPinCodeCorrect()) {
+                if (circuitBreaker.recordAuthenticationFailure(clock.instant())) {
+                    logger.warn("Lock {} repeatedly reports an incorrect pin code, check thing configuration", address);
+                    lock.setAuthenticationState(AuthenticationState.UNAUTHENTICATED);
+                    openCircuit();
+                } else {
+                    logger.debug("Ignoring status frame of {} reporting an incorrect pin code", address);
+                }
+                return;
+            }
+            circuitBreaker.recordAuthenticated();
+        }
+
+        evaluateAutoLock();
 
         updateState(SecuyouBindingConstants.CHANNEL_ID_BATTERY,
                 lock.getBatteryStatus() == BatteryStatus.UNKNOWN ? UnDefType.UNDEF
@@ -227,18 +687,28 @@ public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
 
         switch (lock.getLockPosition()) {
             case LOCKED:
+                onMotorSettled(LockingMechanismPosition.LOCKED);
+                cancelSettleWindow();
                 updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK, OnOffType.ON);
                 break;
             case UNLOCKED:
+                onMotorSettled(LockingMechanismPosition.UNLOCKED);
+                cancelSettleWindow();
                 updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK, OnOffType.OFF);
                 break;
             case LOCKING_OPERATION_IN_PROGRESS:
             case UNKNOWN:
-                // Try unlock and locking again if status cannot be determined
-                if (!unknownLockStatusRescueOperationInProgress
-                        && lastRescueOperation.plus(3, ChronoUnit.MINUTES).isBefore(Instant.now())
-                        && configuration.get().attemptLockRescue) {
-                    lastRescueOperation = Instant.now();
+                if (lock.getLockPosition() == LockingMechanismPosition.LOCKING_OPERATION_IN_PROGRESS) {
+                    onMotorRunning();
+                }
+                if (holdBackTransientPosition()) {
+                    break;
+                }
+                // Try unlock and locking again if status cannot be determined, unless the motor may still be running
+                if (!unknownLockStatusRescueOperationInProgress && !isMotorWithinDeadline()
+                        && lastRescueOperation.plus(3, ChronoUnit.MINUTES).isBefore(clock.instant())
+                        && configuration.attemptLockRescue) {
+                    lastRescueOperation = clock.instant();
                     tryDoubleLockToogleToResetUnknownLockPosition();
                 } else {
                     updateState(SecuyouBindingConstants.CHANNEL_ID_LOCK, UnDefType.UNDEF);
@@ -248,119 +718,446 @@ public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
                 logger.info("Unsupported lock state {}", lock.getLockPosition());
         }
 
-        // Update channels
+        persistState();
+        SecuyouHistoryStore history = historyStore;
+        if (history != null) {
+            history.record(clock.instant(), lock.getLockPosition(), lock.getHandleState(), lock.getBatteryStatus());
+        }
+        publishEvents();
+        confirmations.onStatus(lock.getLockPosition());
     }
 
-    private Instant lastRescueOperation = Instant.EPOCH;
+    private void publishEvents() {
+        for (LockEvent event : lock.getEvents()) {
+            LockEvent published = event;
+            if (event == LockEvent.LOCKED || event == LockEvent.UNLOCKED) {
+                boolean commanded = toggleSent && clock.nanoTime() - toggleSentNanos < TimeUnit.MILLISECONDS
+                        .toNanos(COMMAND_ATTRIBUTION_MILLIS);
+                if (!commanded) {
+                    published = event == LockEvent.LOCKED ? LockEvent.LOCKED_MANUALLY : LockEvent.UNLOCKED_MANUALLY;
+                }
+                // One toggle explains one move
+                toggleSent = false;
+            }
+            logger.debug("Lock {} event {}", address, published);
+            triggerChannel(SecuyouBindingConstants.CHANNEL_ID_EVENT, published.name());
+        }
+    }
 
-    private boolean unknownLockStatusRescueOperationInProgress = false;
+    private void recordToggleSent() {
+        toggleSent = true;
+        toggleSentNanos = clock.nanoTime();
+    }
+
+    /**
+     * The lock started a new session since the previous frame, notifications in between may have been missed. Make
+     * sure notifications are enabled for the new session, read the status and go back to polling every interval.
+     */
+    private void onStatusGap() {
+        statusGaps++;
+        logger.debug("Status frame session token of {} changed, notifications may have been missed ({} gaps)",
+                address, statusGaps);
+        updateState(SecuyouBindingConstants.CHANNEL_ID_STATUS_GAPS, new DecimalType(statusGaps));
+        keepAliveStretch = 1;
+        setupNotifications();
+        readLockStatus();
+    }
+
+    private void handleAuthenticationFailure() {
+        lock.setAuthenticationState(AuthenticationState.UNAUTHENTICATED);
+        if (circuitBreaker.recordAuthenticationFailure(clock.instant())) {
+            logger.warn("Lock {} rejected pin code/encryption key, check thing configuration", address);
+            openCircuit();
+        } else {
+            logger.debug("Lock {} rejected pin code/encryption key, retrying the handshake", address);
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
+                    "Lock rejected pin code/encryption key, retrying");
+            disconnect();
+        }
+    }
+
+    /**
+     * The bluetooth binding reconnects on its own, do not let it while the circuit breaker backs off
+     */
+    @Override
+    protected void connect() {
+        if (circuitBreaker.isBackingOff(clock.instant())) {
+            logger.trace("Not connecting to {}: {}", address, circuitBreaker.describe(clock.instant()));
+            return;
+        }
+        super.connect();
+    }
+
+    private void openCircuit() {
+        cancelKeepAlive();
+        updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                circuitBreaker.describe(clock.instant()));
+        disconnect();
+        scheduleReconnect();
+    }
+
+    /**
+     * Nothing else reconnects once the breaker refused the binding's own attempts, retry when the backoff expires
+     */
+    private void scheduleReconnect() {
+        cancelReconnect();
+        long delayNanos = Math.max(0, Duration.between(clock.instant(), circuitBreaker.getNextAttempt()).toNanos());
+        logger.debug("Reconnecting to {} in {}ms", address, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+        reconnectJob = scheduleInMailbox(() -> {
+            reconnectJob = null;
+            connect();
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelReconnect() {
+        ScheduledFuture<?> job = reconnectJob;
+        if (job != null) {
+            job.cancel(false);
+            reconnectJob = null;
+        }
+    }
+
+    private void handleMissingCharacteristics(String description) {
+        if (circuitBreaker.recordMissingCharacteristics(clock.instant())) {
+            logger.warn("Expected GATT service/characteristics repeatedly missing for {}, backing off", address);
+            openCircuit();
+        } else {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, description);
+            disconnect();
+        }
+    }
+
+    /**
+     * Lock the door locally when the handle is closed, without going through the event bus and rule engine. Evaluated
+     * on the notification path itself; with a delay of 0 the toggle is written from the same mailbox task.
+     */
+    private void evaluateAutoLock() {
+        int delayMillis = configuration.autoLockOnHandleCloseMillis;
+        if (delayMillis < 0) {
+            return;
+        }
+        if (lock.getHandleState() != HandleState.CLOSED
+                || lock.getLockPosition() == LockingMechanismPosition.LOCKED) {
+            cancelAutoLock("handle opened or door locked");
+        } else if (lock.getPreviousHandleState() == HandleState.OPEN && autoLockJob == null
+                && lock.getLockPosition() == LockingMechanismPosition.UNLOCKED
+                && lock.getAuthenticationState() == AuthenticationState.AUTHENTICATED) {
+            long triggerNanos = frameReceivedNanos;
+            if (delayMillis == 0) {
+                performAutoLock(triggerNanos);
+            } else {
+                logger.debug("Handle closed, auto locking in {}ms unless overridden", delayMillis);
+                autoLockJob = scheduleInMailbox(() -> performAutoLock(triggerNanos), delayMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void performAutoLock(long triggerNanos) {
+        autoLockJob = null;
+        if (lock.getHandleState() != HandleState.CLOSED || lock.getLockPosition() != LockingMechanismPosition.UNLOCKED
+                || lock.getAuthenticationState() != AuthenticationState.AUTHENTICATED) {
+            logger.debug("Skipping auto lock, lock is {} and handle {}", lock.getLockPosition(), lock.getHandleState());
+            return;
+        }
+        long issuedMicros = (clock.nanoTime() - triggerNanos) / 1000;
+        sendCommandToLock(SecuyouBindingConstants.CMD_TOGGLE_LOCK).whenCompleteAsync((result, ex) -> {
+            if (ex != null) {
+                logger.warn("Auto lock after handle close failed: {}", ex.getMessage());
+                return;
+            }
+            long reactionMicros = (clock.nanoTime() - triggerNanos) / 1000;
+            lastAutoLockReactionMicros = reactionMicros;
+            maxAutoLockReactionMicros = Math.max(maxAutoLockReactionMicros, reactionMicros);
+            logger.info("Auto locked after handle close: command issued after {}ms, acknowledged after {}ms",
+                    issuedMicros / 1000.0, reactionMicros / 1000.0);
+        }, mailbox);
+    }
+
+    private void cancelAutoLock(String reason) {
+        ScheduledFuture<?> job = autoLockJob;
+        if (job != null) {
+            logger.debug("Cancelled pending auto lock: {}", reason);
+            job.cancel(false);
+            autoLockJob = null;
+        }
+    }
+
+    /**
+     * Transient lock positions are held back for the configured settle window, as the final position normally follows
+     * shortly after. The lock channel keeps its last value meanwhile.
+     *
+     * @return true if the transient position should not be published
+     */
+    private boolean holdBackTransientPosition() {
+        long settleMillis = configuration.lockSettleMillis;
+        if (settleMillis <= 0 || settleWindowExpired) {
+            return false;
+        }
+        if (motorRunning) {
+            settleMillis = motorModel.getDeadlineMillis(settleMillis);
+        }
+        suppressedTransitions++;
+        if (settleJob == null) {
+            logger.debug("Lock reported {}, waiting up to {}ms for it to settle", lock.getLockPosition(),
+                    settleMillis);
+            settleJob = scheduleInMailbox(this::onSettleWindowExpired, settleMillis, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    private void onSettleWindowExpired() {
+        settleJob = null;
+        settleWindowExpired = true;
+        logger.debug("Lock position did not settle in time, reading status");
+        readLockStatus();
+    }
+
+    private void cancelSettleWindow() {
+        ScheduledFuture<?> job = settleJob;
+        if (job != null) {
+            job.cancel(false);
+            settleJob = null;
+        }
+        settleWindowExpired = false;
+    }
+
+    /**
+     * The bolt started moving. Read the status once at the learned completion time, in case the notification of the
+     * final position goes missing.
+     */
+    private void onMotorRunning() {
+        if (motorRunning) {
+            return;
+        }
+        motorRunning = true;
+        motorStartNanos = clock.nanoTime();
+        motorReadIssued = false;
+        expectedMotorOutcome = motorModel.getExpectedOutcome(lastSettledPosition);
+        if (motorModel.isLearned()) {
+            long expectedMillis = motorModel.getExpectedCompletionMillis(configuration.lockSettleMillis);
+            logger.debug("Lock {} motor running, reading status in {}ms ({})", address, expectedMillis, motorModel);
+            cancelMotorRead();
+            motorReadJob = scheduleInMailbox(this::onMotorReadDue, expectedMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void onMotorReadDue() {
+        motorReadJob = null;
+        if (!motorRunning) {
+            return;
+        }
+        motorReadIssued = true;
+        readLockStatus();
+        // With a settle window the window expiry is the deadline read, otherwise check once more at the deadline
+        if (settleJob == null) {
+            long remainingMillis = motorModel.getDeadlineMillis(0)
+                    - TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - motorStartNanos);
+            if (remainingMillis > 0) {
+                motorReadJob = scheduleInMailbox(this::readLockStatus, remainingMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void onMotorSettled(LockingMechanismPosition position) {
+        if (!motorRunning) {
+            return;
+        }
+        motorRunning = false;
+        cancelMotorRead();
+        long durationNanos = clock.nanoTime() - motorStartNanos;
+        // Found by our own read the operation may have finished any time before, so the duration is not a sample
+        if (!motorReadIssued) {
+            motorModel.sample(durationNanos);
+        }
+        motorModel.recordOutcome(position);
+        logger.debug("Lock {} settled {} (expected {}) after {}ms ({})", address, position, expectedMotorOutcome,
+                TimeUnit.NANOSECONDS.toMillis(durationNanos), motorModel);
+    }
+
+    /**
+     * @return true if the motor is running and has not yet taken clearly longer than it usually does
+     */
+    private boolean isMotorWithinDeadline() {
+        return motorRunning && motorModel.isLearned() && clock.nanoTime() - motorStartNanos < TimeUnit.MILLISECONDS
+                .toNanos(motorModel.getDeadlineMillis(0));
+    }
+
+    private void cancelMotorRead() {
+        ScheduledFuture<?> job = motorReadJob;
+        if (job != null) {
+            job.cancel(false);
+            motorReadJob = null;
+        }
+    }
 
-    private synchronized void tryDoubleLockToogleToResetUnknownLockPosition() {
+    SecuyouMotorModel getMotorModel() {
+        return motorModel;
+    }
+
+    private long getRescueStepDelayMillis() {
+        return Math.max(MIN_RESCUE_STEP_DELAY_MILLIS, 2 * rttEstimator.getRtoMillis());
+    }
+
+    /**
+     * Toggle the lock twice with a pause in between, then read back the status. Runs as a chain of mailbox tasks
+     * instead of sleeping so that other events for this lock are not blocked meanwhile.
+     */
+    private void tryDoubleLockToogleToResetUnknownLockPosition() {
         unknownLockStatusRescueOperationInProgress = true;
+        // Only an interrupted operation has a position it was heading for
+        rescueTarget = motorRunning ? expectedMotorOutcome : LockingMechanismPosition.UNKNOWN;
         logger.info("Starting rescue operation");
-        CountDownLatch resetCountdown = new CountDownLatch(1);
+        rescueTimeoutJob = scheduleInMailbox(this::finishRescue,
+                getRescueStepDelayMillis() * 2 + 5 * rttEstimator.getRtoMillis(), TimeUnit.MILLISECONDS);
         if (device.getConnectionState() == BluetoothDevice.ConnectionState.CONNECTED) {
-            BluetoothCharacteristic confirmCharacteristic = device
-                    .getCharacteristic(SecuyouBindingConstants.CONFIRM_CHARACTERISTIC);
+            BluetoothCharacteristic confirmCharacteristic = getConfirmCharacteristic();
             if (confirmCharacteristic != null) {
-                device.writeCharacteristic(confirmCharacteristic, SecuyouBindingConstants.CMD_TOGGLE_LOCK)
-                        .whenComplete((toggle1, ex) -> {
+                recordToggleSent();
+                writeCharacteristic(confirmCharacteristic, SecuyouBindingConstants.CMD_TOGGLE_LOCK, Priority.COMMAND)
+                        .whenCompleteAsync((toggle1, ex) -> {
                             logger.info("Toggle #1 sent");
-                            sleep(2000);
-                            device.writeCharacteristic(confirmCharacteristic, SecuyouBindingConstants.CMD_TOGGLE_LOCK)
-                                    .whenComplete((toggle2, ex2) -> {
-                                        logger.info("Toggle #2 sent");
-                                        sleep(2000);
-
-                                        BluetoothCharacteristic lockStatusCharacteristic = device
-                                                .getCharacteristic(SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC);
-
-                                        if (lockStatusCharacteristic != null) {
-                                            device.readCharacteristic(lockStatusCharacteristic)
-                                                    .whenComplete((lockStatus, ex3) -> {
-                                                        logger.info("Status update after rescue received");
-                                                        handleLockStatusUpdated(lockStatus);
-                                                        if (lock.getLockPosition() == LockingMechanismPosition.UNLOCKED
-                                                                || lock.getLockPosition() == LockingMechanismPosition.LOCKED) {
-                                                            logger.info("Rescue operation successful");
-                                                        } else {
-                                                            logger.warn("Rescue operation unsuccessful");
-                                                        }
-                                                        resetCountdown.countDown();
-                                                    });
-                                        } else {
-                                            logger.warn(
-                                                    "Could not request lock status during recovery - characteristic not found");
-                                        }
-                                    });
-
-                        });
+                            scheduleRescueStep(() -> continueRescue(confirmCharacteristic));
+                        }, mailbox);
             } else {
                 logger.warn("Could not send command to lock - characteristic not found");
+                finishRescue();
             }
         } else {
             logger.warn("Could not send command to lock - device not connected");
+            finishRescue();
         }
+    }
 
-        try {
-            resetCountdown.await(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        } finally {
-            unknownLockStatusRescueOperationInProgress = false;
+    /**
+     * If the first toggle took the lock where the interrupted operation was heading, a second one would undo it
+     */
+    private void continueRescue(BluetoothCharacteristic confirmCharacteristic) {
+        if (rescueTarget != LockingMechanismPosition.UNKNOWN && lock.getLockPosition() == rescueTarget) {
+            logger.info("Lock reached {} after toggle #1, rescue complete", rescueTarget);
+            finishRescue();
+        } else {
+            sendSecondRescueToggle(confirmCharacteristic);
         }
     }
 
-    private static void sleep(int i) {
-        try {
-            Thread.sleep(i);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+    private void sendSecondRescueToggle(BluetoothCharacteristic confirmCharacteristic) {
+        recordToggleSent();
+        writeCharacteristic(confirmCharacteristic, SecuyouBindingConstants.CMD_TOGGLE_LOCK, Priority.COMMAND)
+                .whenCompleteAsync((toggle2, ex2) -> {
+                    logger.info("Toggle #2 sent");
+                    scheduleRescueStep(this::readStatusAfterRescue);
+                }, mailbox);
+    }
+
+    /**
+     * Unless the rescue has been finished meanwhile, by its timeout or by disposing the handler
+     */
+    private void scheduleRescueStep(Runnable step) {
+        if (unknownLockStatusRescueOperationInProgress) {
+            rescueStepJob = scheduleInMailbox(step, getRescueStepDelayMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void readStatusAfterRescue() {
+        BluetoothCharacteristic lockStatusCharacteristic = getLockStatusCharacteristic();
+
+        if (lockStatusCharacteristic != null) {
+            readCharacteristic(lockStatusCharacteristic, Priority.POLL).whenCompleteAsync((lockStatus, ex3) -> {
+                if (ex3 != null) {
+                    logger.warn("Could not read status after rescue");
+                    finishRescue();
+                    return;
+                }
+                logger.info("Status update after rescue received");
+                handleLockStatusUpdated(lockStatus);
+                if (lock.getLockPosition() == LockingMechanismPosition.UNLOCKED
+                        || lock.getLockPosition() == LockingMechanismPosition.LOCKED) {
+                    logger.info("Rescue operation successful");
+                } else {
+                    logger.warn("Rescue operation unsuccessful");
+                }
+                finishRescue();
+            }, mailbox);
+        } else {
+            logger.warn("Could not request lock status during recovery - characteristic not found");
+            finishRescue();
+        }
+    }
+
+    private void finishRescue() {
+        ScheduledFuture<?> timeoutJob = rescueTimeoutJob;
+        if (timeoutJob != null) {
+            timeoutJob.cancel(false);
+            rescueTimeoutJob = null;
+        }
+        ScheduledFuture<?> stepJob = rescueStepJob;
+        if (stepJob != null) {
+            stepJob.cancel(false);
+            rescueStepJob = null;
         }
+        unknownLockStatusRescueOperationInProgress = false;
     }
 
     @Override
     public void onServicesDiscovered() {
         super.onServicesDiscovered();
-        initializeLock();
+        mailbox.execute(() -> {
+            startupTimeline.mark(Stage.SERVICES_DISCOVERED);
+            long handshakeDelayMillis = outageCoordinator.admitHandshake(adapterKey, clock.nanoTime());
+            if (handshakeDelayMillis > 0) {
+                // Adapter is recovering from an outage, do not handshake in lockstep with all other locks
+                logger.debug("Delaying handshake with {} by {}ms", address, handshakeDelayMillis);
+                scheduleInMailbox(this::initializeLock, handshakeDelayMillis, TimeUnit.MILLISECONDS);
+            } else {
+                initializeLock();
+            }
+        });
     }
 
-    private synchronized void initializeLock() {
+    private void initializeLock() {
+        if (!circuitBreaker.allowAttempt(clock.instant())) {
+            logger.debug("Not attempting handshake with {}: {}", address, circuitBreaker.describe(clock.instant()));
+            openCircuit();
+            return;
+        }
         logger.info("Starting lock handshake procedure");
+        startupTimeline.mark(Stage.HANDSHAKE_STARTED);
         updateStatus(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, "Connected, initializing");
-        @Nullable
-        BluetoothService keyService = device.getServices(SecuyouBindingConstants.KEY_SERVICE);
-        if (keyService == null) {
-            logger.debug("ERROR: Expected key service {}, cannot communicate with device", address);
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
-                    "Unsupported device or firmware (gatt service not found)");
-            disconnect();
-        } else {
-            setupNotifications();
-            readThingProperties();
-
-            BluetoothCharacteristic lockStateCharacteristic = keyService
-                    .getCharacteristic(SecuyouBindingConstants.LOCK_STATE_CHARACTERISTIC);
-            BluetoothCharacteristic lockStatusCharacteristic = keyService
-                    .getCharacteristic(SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC);
-            BluetoothCharacteristic confirmCharacteristic = keyService
-                    .getCharacteristic(SecuyouBindingConstants.CONFIRM_CHARACTERISTIC);
-
-            if (lockStateCharacteristic == null || lockStatusCharacteristic == null || confirmCharacteristic == null) {
+        SecuyouGattProfile resolvedProfile = SecuyouGattProfile.resolve(device);
+        profile = resolvedProfile;
+        if (resolvedProfile == null) {
+            if (device.getServices(SecuyouBindingConstants.KEY_SERVICE) == null) {
+                logger.debug("ERROR: Expected key service {}, cannot communicate with device", address);
+                handleMissingCharacteristics("Unsupported device or firmware (gatt service not found)");
+            } else {
                 logger.debug("ERROR: Expected GATT characteristics missing for {}, cannot communicate with device",
                         address);
-                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
-                        "Unsupported device or firmware (characteristics missing)");
-                disconnect();
+                handleMissingCharacteristics("Unsupported device or firmware (characteristics missing)");
             }
+        } else {
+            logger.debug("Resolved GATT profile of {}: {}", address, resolvedProfile);
+            circuitBreaker.recordCharacteristicsFound();
+            // Notifications are needed for the handshake, device properties are read once ONLINE
+            setupNotifications();
+
+            BluetoothCharacteristic lockStateCharacteristic = resolvedProfile.getLockState();
+            BluetoothCharacteristic lockStatusCharacteristic = resolvedProfile.getLockStatus();
+            BluetoothCharacteristic confirmCharacteristic = resolvedProfile.getConfirm();
 
             if (lockStateCharacteristic != null) {
-                device.readCharacteristic(lockStateCharacteristic).whenComplete((initialLockState, ex) -> {
-                    logger.debug("Initial lock state characteristic {} from device {}: {}",
-                            lockStateCharacteristic.getUuid(), address,
-                            DatatypeConverter.printHexBinary(initialLockState));
+                CompletableFuture<byte[]> initialRead = readCharacteristic(lockStateCharacteristic, Priority.HANDSHAKE);
+                initialRead.whenCompleteAsync((initialLockState, ex) -> {
+                    if (ex != null || !lock.setLockState(initialLockState)) {
+                        logger.debug("Could not read initial lock state characteristic from device {}", address);
+                        return;
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Initial lock state characteristic {} from device {}: {}",
+                                lockStateCharacteristic.getUuid(), address,
+                                DatatypeConverter.printHexBinary(initialLockState));
+                    }
 
-                    lock.setLockState(initialLockState);
                     if (lock.getDeviceState() == DeviceState.KEY_GENERATION) {
                         // Ready to generate key
                         if (isPinPresentAndOfCorrectFormat()) {
@@ -373,9 +1170,10 @@ public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
 
                             if (confirmCharacteristic != null) {
                                 lock.setAuthenticationState(AuthenticationState.AUTHENTICATION_IN_PROGRESS);
-                                device.writeCharacteristic(confirmCharacteristic,
-                                        SecuyouBindingConstants.CMD_GENERATE_CHALLENGE).whenComplete(
-                                                (data, ex4) -> device.readCharacteristic(lockStateCharacteristic));
+                                writeCharacteristic(confirmCharacteristic,
+                                        SecuyouBindingConstants.CMD_GENERATE_CHALLENGE, Priority.HANDSHAKE)
+                                        .whenCompleteAsync((data, ex4) -> readCharacteristic(lockStateCharacteristic,
+                                                Priority.HANDSHAKE), mailbox);
                             }
                         } else {
                             logger.warn(
@@ -383,21 +1181,30 @@ public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
                             if (lockStatusCharacteristic != null) {
                                 lock.setDeviceState(DeviceState.KEY_CONFIRMATION); // Override state
 
-                                device.readCharacteristic(lockStatusCharacteristic).whenComplete((keyData, keyEx) -> {
-                                    logger.debug("Key Characteristic {} from device {}: {}",
-                                            lockStateCharacteristic.getUuid(), address,
-                                            DatatypeConverter.printHexBinary(keyData));
+                                CompletableFuture<byte[]> keyRead = readCharacteristic(lockStatusCharacteristic,
+                                        Priority.HANDSHAKE);
+                                keyRead.whenCompleteAsync((keyData, keyEx) -> {
+                                    if (keyEx != null) {
+                                        logger.debug("Could not read lock status from device {}", address);
+                                        return;
+                                    }
+                                    if (logger.isDebugEnabled()) {
+                                        logger.debug("Key Characteristic {} from device {}: {}",
+                                                lockStateCharacteristic.getUuid(), address,
+                                                DatatypeConverter.printHexBinary(keyData));
+                                    }
 
                                     updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Read only mode");
+                                    onOnline();
 
                                     handleLockStatusUpdated(keyData);
-                                });
+                                }, mailbox);
                             }
                         }
                     } else {
                         logger.warn("Lock is in unexpected state {}", lock.getDeviceState());
                     }
-                });
+                }, mailbox);
             } else {
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                         "Unsupported device or firmware (state characteristic missing)");
@@ -408,92 +1215,174 @@ public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
 
     private boolean isPinPresentAndOfCorrectFormat() {
         boolean presentAndCorrect = false;
-        if (configuration.isPresent()) {
-            SecuyouConfiguration e = configuration.get();
-            try {
-                if (e.pinCode.length() == 5 && Integer.parseInt(e.pinCode) <= 99999 && e.encryptionKey.length() == 32) {
-                    presentAndCorrect = true;
-                }
-            } catch (NumberFormatException ex) {
-                logger.warn("Pin code is either not present or not numeric <= 99999 - cannot authenticate");
+        SecuyouConfiguration e = configuration;
+        try {
+            if (e.pinCode.length() == 5 && Integer.parseInt(e.pinCode) <= 99999 && e.encryptionKey.length() == 32) {
+                presentAndCorrect = true;
             }
-
+        } catch (NumberFormatException ex) {
+            logger.warn("Pin code is either not present or not numeric <= 99999 - cannot authenticate");
         }
         return presentAndCorrect;
     }
 
+    /**
+     * Single targeted read of the lock status characteristic
+     */
+    private void readLockStatus() {
+        if (device.getConnectionState() == BluetoothDevice.ConnectionState.CONNECTED) {
+            BluetoothCharacteristic lockStatusCharacteristic = getLockStatusCharacteristic();
+            if (lockStatusCharacteristic != null) {
+                readCharacteristic(lockStatusCharacteristic, Priority.POLL).whenCompleteAsync((lockStatus, ex) -> {
+                    if (ex == null) {
+                        handleLockStatusUpdated(lockStatus);
+                    }
+                }, mailbox);
+            }
+        }
+    }
+
     private void refreshStatus() {
         if (device.getConnectionState() == BluetoothDevice.ConnectionState.CONNECTED) {
             // Ensure we still get 'em
             setupNotifications();
 
-            BluetoothCharacteristic lockStatusCharacteristic = device
-                    .getCharacteristic(SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC);
+            BluetoothCharacteristic lockStatusCharacteristic = getLockStatusCharacteristic();
             if (lockStatusCharacteristic != null) {
-                device.readCharacteristic(lockStatusCharacteristic);
+                readCharacteristic(lockStatusCharacteristic, Priority.POLL);
             }
         }
     }
 
     private void setupNotifications() {
-        BluetoothCharacteristic stateCharacteristic = device
-                .getCharacteristic(SecuyouBindingConstants.LOCK_STATE_CHARACTERISTIC);
+        BluetoothCharacteristic stateCharacteristic = getLockStateCharacteristic();
         if (stateCharacteristic != null) {
-            device.enableNotifications(stateCharacteristic);
+            enableNotifications(stateCharacteristic);
         }
-        BluetoothCharacteristic keyCharacteristic = device
-                .getCharacteristic(SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC);
+        BluetoothCharacteristic keyCharacteristic = getLockStatusCharacteristic();
         if (keyCharacteristic != null) {
-            device.enableNotifications(keyCharacteristic);
+            enableNotifications(keyCharacteristic);
         }
     }
 
+    private @Nullable BluetoothCharacteristic getLockStatusCharacteristic() {
+        SecuyouGattProfile currentProfile = profile;
+        return currentProfile != null ? currentProfile.getLockStatus() : null;
+    }
+
+    private @Nullable BluetoothCharacteristic getLockStateCharacteristic() {
+        SecuyouGattProfile currentProfile = profile;
+        return currentProfile != null ? currentProfile.getLockState() : null;
+    }
+
+    private @Nullable BluetoothCharacteristic getConfirmCharacteristic() {
+        SecuyouGattProfile currentProfile = profile;
+        return currentProfile != null ? currentProfile.getConfirm() : null;
+    }
+
+    /**
+     * Read the device information, retried on the next ONLINE unless every property was answered
+     */
     private void readThingProperties() {
-        // Update thing properties in one go
-        CountDownLatch latch = new CountDownLatch(6);
-
-        readDeviceProp(latch, SecuyouBindingConstants.MODEL_NUMBER_CHARACTERISTIC, Thing.PROPERTY_MODEL_ID,
-                data -> String.valueOf(Float.parseFloat(new String(data)) / 100F));
-        readDeviceProp(latch, SecuyouBindingConstants.HARDWARE_REVISION_CHARACTERISTIC, Thing.PROPERTY_HARDWARE_VERSION,
-                data -> String.valueOf(Float.parseFloat(new String(data)) / 10F));
-        readDeviceProp(latch, SecuyouBindingConstants.NA_CHARACTERISTIC, Thing.PROPERTY_VENDOR, String::new);
-        readDeviceProp(latch, SecuyouBindingConstants.SERIAL_CHARACTERISTIC, Thing.PROPERTY_SERIAL_NUMBER, String::new);
-        readDeviceProp(latch, SecuyouBindingConstants.NAME_CHARACTERISTIC, "name", String::new);
-        readDeviceProp(latch, SecuyouBindingConstants.FIRMWARE_REVISION_CHARACTERISTIC, Thing.PROPERTY_FIRMWARE_VERSION,
-                String::new);
-        // Update thing when all requests have completed
-        try {
-            latch.await(10, TimeUnit.SECONDS);
-            Map<String, String> existingProps = editProperties();
-            deviceProps.putAll(existingProps);
+        if (propertiesRead || propertiesReadInProgress
+                || device.getConnectionState() != BluetoothDevice.ConnectionState.CONNECTED) {
+            return;
+        }
+        propertiesReadInProgress = true;
+        // Only held while the reads are in flight, the thing itself stores the properties
+        Map<String, String> deviceProps = new HashMap<>(8);
+        // Update thing properties in one go when all requests have completed, without blocking the mailbox
+        List<CompletableFuture<Boolean>> reads = List.of(
+                readDeviceProp(deviceProps, SecuyouBindingConstants.MODEL_NUMBER_CHARACTERISTIC,
+                        Thing.PROPERTY_MODEL_ID, data -> String.valueOf(Float.parseFloat(new String(data)) / 100F)),
+                readDeviceProp(deviceProps, SecuyouBindingConstants.HARDWARE_REVISION_CHARACTERISTIC,
+                        Thing.PROPERTY_HARDWARE_VERSION, data -> String.valueOf(Float.parseFloat(new String(data)) / 10F)),
+                readDeviceProp(deviceProps, SecuyouBindingConstants.NA_CHARACTERISTIC, Thing.PROPERTY_VENDOR,
+                        String::new),
+                readDeviceProp(deviceProps, SecuyouBindingConstants.SERIAL_CHARACTERISTIC,
+                        Thing.PROPERTY_SERIAL_NUMBER, String::new),
+                readDeviceProp(deviceProps, SecuyouBindingConstants.NAME_CHARACTERISTIC, "name", String::new),
+                readDeviceProp(deviceProps, SecuyouBindingConstants.FIRMWARE_REVISION_CHARACTERISTIC,
+                        Thing.PROPERTY_FIRMWARE_VERSION, String::new));
+        CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).whenCompleteAsync((result, ex) -> {
+            propertiesReadInProgress = false;
+            propertiesRead = reads.stream().allMatch(CompletableFuture::join);
+            deviceProps.putAll(editProperties());
             updateProperties(deviceProps);
-            logger.debug("Updated thing properties");
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            startupTimeline.mark(Stage.PROPERTIES_READ);
+            logger.debug("Updated thing properties{}, startup timeline: {}", propertiesRead ? "" : " partially",
+                    startupTimeline);
+        }, mailbox);
+    }
+
+    /**
+     * @return true once the property is read or the lock does not have it, false if the read failed or was not
+     *         answered within {@link #PROPERTIES_READ_TIMEOUT_RTOS} RTOs of being sent. Time queued behind the
+     *         operations of other locks does not count.
+     */
+    private CompletableFuture<Boolean> readDeviceProp(Map<String, String> deviceProps, UUID characteristicUUID,
+            String propKey, Function<byte[], String> resultConverter) {
+        SecuyouGattProfile currentProfile = profile;
+        BluetoothCharacteristic characteristic = currentProfile != null
+                ? currentProfile.getDeviceInfo(characteristicUUID)
+                : null;
+        if (characteristic == null) {
+            return CompletableFuture.completedFuture(true);
         }
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        gattScheduler.submit(adapterKey, getThing().getUID(), Priority.PROPERTIES, () -> {
+            // Queued ahead of the answer, so the timeout is armed before the read can complete
+            mailbox.execute(() -> armPropertyReadTimeout(characteristicUUID, done));
+            return timed(device.readCharacteristic(characteristic));
+        }).whenCompleteAsync((data, ex) -> {
+            cancelPropertyReadTimeout(characteristicUUID);
+            if (data != null && !done.isDone()) {
+                try {
+                    deviceProps.put(propKey, resultConverter.apply(data));
+                } catch (NumberFormatException e) {
+                    logger.debug("Could not parse property {} from {}", propKey, address);
+                }
+            }
+            done.complete(data != null);
+        }, mailbox);
+        return done;
     }
 
-    private void readDeviceProp(CountDownLatch latch, UUID characteristicUUID, String propKey,
-            Function<byte[], String> resultConverter) {
-        BluetoothCharacteristic characteristic = device.getCharacteristic(characteristicUUID);
-        if (characteristic != null) {
-            device.readCharacteristic(characteristic).whenComplete((data, ex) -> {
-                deviceProps.put(propKey, resultConverter.apply(data));
-                latch.countDown();
-            });
-        } else {
-            latch.countDown();
+    private void armPropertyReadTimeout(UUID characteristicUUID, CompletableFuture<Boolean> done) {
+        if (!done.isDone()) {
+            propertyReadTimeouts.put(characteristicUUID, scheduleInMailbox(() -> {
+                propertyReadTimeouts.remove(characteristicUUID);
+                done.complete(false);
+            }, PROPERTIES_READ_TIMEOUT_RTOS * rttEstimator.getRtoMillis(), TimeUnit.MILLISECONDS));
         }
     }
 
+    private void cancelPropertyReadTimeout(UUID characteristicUUID) {
+        ScheduledFuture<?> job = propertyReadTimeouts.remove(characteristicUUID);
+        if (job != null) {
+            job.cancel(false);
+        }
+    }
+
+    private void cancelPropertyReadTimeouts() {
+        propertyReadTimeouts.values().forEach(job -> job.cancel(false));
+        propertyReadTimeouts.clear();
+    }
+
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
+        mailbox.execute(() -> handleLockCommand(channelUID, command));
+        super.handleCommand(channelUID, command);
+    }
+
+    private void handleLockCommand(ChannelUID channelUID, Command command) {
         if (command instanceof RefreshType) {
             refreshStatus();
         } else {
             if (lock.getAuthenticationState() == AuthenticationState.AUTHENTICATED) {
                 switch (channelUID.getId()) {
                     case SecuyouBindingConstants.CHANNEL_ID_LOCK: {
+                        cancelAutoLock("overridden by command " + command);
                         if (lock.getLockPosition() == LockingMechanismPosition.LOCKING_OPERATION_IN_PROGRESS) {
                             logger.warn("Lock is {}, ignoring command as result will be unpredictable",
                                     lock.getLockPosition());
@@ -526,20 +1415,152 @@ public class SecuyouSmartLockHandler extends ConnectedBluetoothHandler {
                         lock.getAuthenticationState());
             }
         }
-        super.handleCommand(channelUID, command);
     }
 
-    private void sendCommandToLock(byte[] data) {
+    /**
+     * Toggle the lock if it is not in the requested position already, and complete once a status frame confirms the
+     * new position
+     */
+    public CompletableFuture<SecuyouCommandResult> setLockedAndConfirm(boolean locked, Duration timeout) {
+        LockingMechanismPosition target = locked ? LockingMechanismPosition.LOCKED : LockingMechanismPosition.UNLOCKED;
+        return CompletableFuture.supplyAsync(() -> {
+            if (lock.getAuthenticationState() != AuthenticationState.AUTHENTICATED) {
+                return CompletableFuture.completedFuture(SecuyouCommandResult.NOT_AUTHENTICATED);
+            } else if (lock.getLockPosition() == LockingMechanismPosition.LOCKING_OPERATION_IN_PROGRESS) {
+                return CompletableFuture.completedFuture(SecuyouCommandResult.BUSY);
+            } else if (lock.getLockPosition() == LockingMechanismPosition.UNKNOWN) {
+                return CompletableFuture.completedFuture(SecuyouCommandResult.UNKNOWN_POSITION);
+            } else if (lock.getLockPosition() == target) {
+                return CompletableFuture.completedFuture(SecuyouCommandResult.ALREADY_IN_POSITION);
+            }
+            cancelAutoLock("overridden by action");
+            logger.debug("Toggling lock to {} and awaiting confirmation, current state is {}", target,
+                    lock.getLockPosition());
+            CompletableFuture<SecuyouCommandResult> confirmation = confirmations.await(target, timeout);
+            sendCommandToLock(SecuyouBindingConstants.CMD_TOGGLE_LOCK).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    confirmation.complete(SecuyouCommandResult.FAILED);
+                }
+            });
+            return confirmation;
+        }, mailbox).thenCompose(Function.identity());
+    }
+
+    /**
+     * @return lock and handle history within the range, or null if there is none
+     */
+    public @Nullable SecuyouHistorySummary queryHistory(Instant from, Instant to) {
+        SecuyouHistoryStore history = historyStore;
+        return history != null ? history.query(from, to, clock.instant()) : null;
+    }
+
+    /**
+     * Read the lock status, complete once the channels have been updated from it
+     */
+    public CompletableFuture<SecuyouCommandResult> refreshAndConfirm(Duration timeout) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!connected) {
+                return CompletableFuture.completedFuture(SecuyouCommandResult.DISCONNECTED);
+            }
+            CompletableFuture<SecuyouCommandResult> confirmation = confirmations.await(null, timeout);
+            readLockStatus();
+            return confirmation;
+        }, mailbox).thenCompose(Function.identity());
+    }
+
+    /**
+     * GATT operations queue in the {@link SecuyouGattScheduler} of the adapter, the time spent waiting there is not
+     * part of the measured round trip
+     */
+    private CompletableFuture<byte[]> readCharacteristic(BluetoothCharacteristic characteristic, Priority priority) {
+        return gattScheduler.submit(adapterKey, getThing().getUID(), priority,
+                () -> timed(device.readCharacteristic(characteristic)));
+    }
+
+    private CompletableFuture<@Nullable Void> writeCharacteristic(BluetoothCharacteristic characteristic, byte[] data,
+            Priority priority) {
+        return gattScheduler.submit(adapterKey, getThing().getUID(), priority,
+                () -> timed(device.writeCharacteristic(characteristic, data)));
+    }
+
+    private CompletableFuture<@Nullable Void> enableNotifications(BluetoothCharacteristic characteristic) {
+        return gattScheduler.submit(adapterKey, getThing().getUID(), Priority.HANDSHAKE,
+                () -> device.enableNotifications(characteristic));
+    }
+
+    /**
+     * Feed the duration of a GATT operation into the RTT estimator
+     */
+    private <T> CompletableFuture<T> timed(CompletableFuture<T> operation) {
+        long startNanos = clock.nanoTime();
+        operation.whenComplete((result, ex) -> {
+            if (ex == null) {
+                long rttNanos = clock.nanoTime() - startNanos;
+                rttEstimator.sample(rttNanos);
+                gattLatency.sample(rttNanos);
+            } else {
+                rttEstimator.backoff();
+                gattLatency.failure();
+            }
+        });
+        return operation;
+    }
+
+    SecuyouRttEstimator getRttEstimator() {
+        return rttEstimator;
+    }
+
+    /**
+     * Snapshot of connection, handshake and timing state for the console
+     */
+    public CompletableFuture<SecuyouLockDiagnostics> getDiagnostics() {
+        return CompletableFuture.supplyAsync(() -> new SecuyouLockDiagnostics(getThing().getUID(), adapterKey,
+                connected, lock.getDeviceState(), lock.getAuthenticationState(), lock.getLockPosition(), statusFrames,
+                statusFrames == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - lastStatusFrameNanos),
+                statusGaps, skippedPolls, suppressedTransitions, lastAutoLockReactionMicros, maxAutoLockReactionMicros,
+                gattLatency, rttEstimator, motorModel, startupTimeline, mailbox,
+                gattScheduler.getStats(adapterKey), pollCoordinator.getStats(adapterKey)),
+                mailbox);
+    }
+
+    /**
+     * Read the lock status once, outside the poll schedule
+     *
+     * @return round trip of the read itself, without the time spent queued behind other operations of the adapter
+     */
+    public CompletableFuture<Duration> probeStatusRead() {
+        return CompletableFuture.supplyAsync(() -> {
+            BluetoothCharacteristic lockStatusCharacteristic = getLockStatusCharacteristic();
+            if (!connected || lockStatusCharacteristic == null) {
+                return CompletableFuture.<Duration> failedFuture(new SecuyouException("Lock is not connected"));
+            }
+            AtomicLong roundTripNanos = new AtomicLong();
+            return gattScheduler.submit(adapterKey, getThing().getUID(), Priority.POLL, () -> {
+                long startNanos = clock.nanoTime();
+                return timed(device.readCharacteristic(lockStatusCharacteristic))
+                        .whenComplete((lockStatus, ex) -> roundTripNanos.set(clock.nanoTime() - startNanos));
+            }).thenApplyAsync(lockStatus -> {
+                handleLockStatusUpdated(lockStatus);
+                return Duration.ofNanos(roundTripNanos.get());
+            }, mailbox);
+        }, mailbox).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<?> sendCommandToLock(byte[] data) {
+        if (Arrays.equals(data, SecuyouBindingConstants.CMD_TOGGLE_LOCK)) {
+            recordToggleSent();
+        }
         if (device.getConnectionState() == BluetoothDevice.ConnectionState.CONNECTED) {
-            BluetoothCharacteristic confirmCharacteristic = device
-                    .getCharacteristic(SecuyouBindingConstants.CONFIRM_CHARACTERISTIC);
+            BluetoothCharacteristic confirmCharacteristic = getConfirmCharacteristic();
             if (confirmCharacteristic != null) {
-                device.writeCharacteristic(confirmCharacteristic, data);
+                return writeCharacteristic(confirmCharacteristic, data, Priority.COMMAND);
             } else {
                 logger.warn("Could not send command to lock - characteristic not found");
+                return CompletableFuture.failedFuture(new SecuyouException("Characteristic not found"));
             }
         } else {
             logger.warn("Could not send command to lock - device not connected");
+            return CompletableFuture.failedFuture(new SecuyouException("Device not connected"));
         }
     }
 }
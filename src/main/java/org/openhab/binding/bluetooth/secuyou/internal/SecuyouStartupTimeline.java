@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link SecuyouStartupTimeline} timestamps each stage from connection to ONLINE, so the time spent on the
+ * critical path can be inspected. Only the first occurrence of each stage after {@link #start()} is recorded.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouStartupTimeline {
+
+    public enum Stage {
+        CONNECTED,
+        SERVICES_DISCOVERED,
+        HANDSHAKE_STARTED,
+        CHALLENGE_RECEIVED,
+        PIN_SENT,
+        AUTHENTICATED,
+        FIRST_STATUS,
+        ONLINE,
+        PROPERTIES_READ
+    }
+
+    private static final long NOT_REACHED = -1;
+
+    private final SecuyouClock clock;
+    private final long[] stageNanos = new long[Stage.values().length];
+    private long startNanos;
+
+    public SecuyouStartupTimeline() {
+        this(SecuyouClock.SYSTEM);
+    }
+
+    SecuyouStartupTimeline(SecuyouClock clock) {
+        this.clock = clock;
+        start();
+    }
+
+    public void start() {
+        Arrays.fill(stageNanos, NOT_REACHED);
+        startNanos = clock.nanoTime();
+    }
+
+    /**
+     * @return true if this was the first time the stage was reached
+     */
+    public boolean mark(Stage stage) {
+        if (stageNanos[stage.ordinal()] != NOT_REACHED) {
+            return false;
+        }
+        stageNanos[stage.ordinal()] = clock.nanoTime();
+        return true;
+    }
+
+    public boolean isReached(Stage stage) {
+        return stageNanos[stage.ordinal()] != NOT_REACHED;
+    }
+
+    /**
+     * @return milliseconds from start to the given stage, or -1 if not reached
+     */
+    public long millisTo(Stage stage) {
+        long nanos = stageNanos[stage.ordinal()];
+        return nanos == NOT_REACHED ? -1 : (nanos - startNanos) / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            long millis = millisTo(stage);
+            if (millis >= 0) {
+                if (builder.length() > 0) {
+                    builder.append(", ");
+                }
+                builder.append(stage).append(" +").append(millis).append("ms");
+            }
+        }
+        return builder.toString();
+    }
+}
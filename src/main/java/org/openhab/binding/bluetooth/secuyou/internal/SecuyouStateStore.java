@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.state.SecuyouSmartLockSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouStateStore} keeps the last known lock status of one thing in a small file, so that channels can be
+ * populated right away after a restart. The file is only rewritten when the status actually changes.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouStateStore.class);
+
+    private final Path file;
+    private @Nullable SecuyouSmartLockSnapshot lastSaved;
+
+    public SecuyouStateStore(Path directory, String thingUID) {
+        this.file = directory.resolve(thingUID.replaceAll("[^A-Za-z0-9_.-]", "_") + ".state");
+    }
+
+    public @Nullable SecuyouSmartLockSnapshot load() {
+        try {
+            SecuyouSmartLockSnapshot snapshot = SecuyouSmartLockSnapshot.decode(Files.readAllBytes(file));
+            if (snapshot == null) {
+                logger.debug("Ignoring unreadable lock state file {}", file);
+            }
+            lastSaved = snapshot;
+            return snapshot;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.debug("Could not read lock state file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the snapshot unless the stored status is the same
+     */
+    public void save(SecuyouSmartLockSnapshot snapshot) {
+        if (snapshot.sameStatusAs(lastSaved)) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, snapshot.encode());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastSaved = snapshot;
+        } catch (IOException e) {
+            logger.debug("Could not write lock state file {}: {}", file, e.getMessage());
+        }
+    }
+
+    public void delete() {
+        try {
+            Files.deleteIfExists(file);
+            lastSaved = null;
+        } catch (IOException e) {
+            logger.debug("Could not delete lock state file {}: {}", file, e.getMessage());
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+}
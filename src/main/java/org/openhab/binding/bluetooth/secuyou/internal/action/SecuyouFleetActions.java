@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal.action;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouFleetHandler;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouGroupResult;
+import org.openhab.core.automation.annotation.ActionInput;
+import org.openhab.core.automation.annotation.ActionOutput;
+import org.openhab.core.automation.annotation.ActionOutputs;
+import org.openhab.core.automation.annotation.RuleAction;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingActions;
+import org.openhab.core.thing.binding.ThingActionsScope;
+import org.openhab.core.thing.binding.ThingHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouFleetActions} lets rules lock or unlock many locks at once, all toggles are sent in parallel
+ * instead of one lock after the other. The outcome is reported once every lock has confirmed or given up.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@ThingActionsScope(name = "bluetooth.secuyou")
+@NonNullByDefault
+public class SecuyouFleetActions implements ThingActions {
+
+    /**
+     * Extra time on top of the confirmation timeout for the handlers to process the request
+     */
+    private static final long GRACE_SECONDS = 5;
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouFleetActions.class);
+
+    private @Nullable SecuyouFleetHandler handler;
+
+    @Override
+    public void setThingHandler(@Nullable ThingHandler handler) {
+        if (handler instanceof SecuyouFleetHandler) {
+            this.handler = (SecuyouFleetHandler) handler;
+        }
+    }
+
+    @Override
+    public @Nullable ThingHandler getThingHandler() {
+        return handler;
+    }
+
+    @RuleAction(label = "lock all and confirm", description = "Locks the given doors in parallel and waits until "
+            + "they report it")
+    public @ActionOutputs({ @ActionOutput(name = "success", type = "java.lang.Boolean"),
+            @ActionOutput(name = "confirmed", type = "java.lang.Integer"),
+            @ActionOutput(name = "skipped", type = "java.lang.Integer"),
+            @ActionOutput(name = "failed", type = "java.lang.Integer"),
+            @ActionOutput(name = "failedLocks", type = "java.lang.String"),
+            @ActionOutput(name = "maxLatencyMillis", type = "java.lang.Long"),
+            @ActionOutput(name = "details", type = "java.lang.String") }) Map<String, Object> lockAllAndConfirm(
+                    @ActionInput(name = "locks", label = "Comma separated thing UIDs, all locks if empty") String locks,
+                    @ActionInput(name = "timeoutSeconds", label = "Timeout in seconds") int timeoutSeconds) {
+        return setLocked(locks, true, timeoutSeconds);
+    }
+
+    @RuleAction(label = "unlock all and confirm", description = "Unlocks the given doors in parallel and waits until "
+            + "they report it")
+    public @ActionOutputs({ @ActionOutput(name = "success", type = "java.lang.Boolean"),
+            @ActionOutput(name = "confirmed", type = "java.lang.Integer"),
+            @ActionOutput(name = "skipped", type = "java.lang.Integer"),
+            @ActionOutput(name = "failed", type = "java.lang.Integer"),
+            @ActionOutput(name = "failedLocks", type = "java.lang.String"),
+            @ActionOutput(name = "maxLatencyMillis", type = "java.lang.Long"),
+            @ActionOutput(name = "details", type = "java.lang.String") }) Map<String, Object> unlockAllAndConfirm(
+                    @ActionInput(name = "locks", label = "Comma separated thing UIDs, all locks if empty") String locks,
+                    @ActionInput(name = "timeoutSeconds", label = "Timeout in seconds") int timeoutSeconds) {
+        return setLocked(locks, false, timeoutSeconds);
+    }
+
+    public static Map<String, Object> lockAllAndConfirm(ThingActions actions, String locks, int timeoutSeconds) {
+        return ((SecuyouFleetActions) actions).lockAllAndConfirm(locks, timeoutSeconds);
+    }
+
+    public static Map<String, Object> unlockAllAndConfirm(ThingActions actions, String locks, int timeoutSeconds) {
+        return ((SecuyouFleetActions) actions).unlockAllAndConfirm(locks, timeoutSeconds);
+    }
+
+    private Map<String, Object> setLocked(@Nullable String locks, boolean locked, int timeoutSeconds) {
+        SecuyouFleetHandler currentHandler = handler;
+        if (currentHandler == null) {
+            return Map.of("success", false);
+        }
+        List<ThingUID> targets = new ArrayList<>();
+        if (locks != null) {
+            try {
+                for (String uid : locks.split(",")) {
+                    if (!uid.isBlank()) {
+                        targets.add(new ThingUID(uid.trim()));
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid lock thing UID in '{}': {}", locks, e.getMessage());
+                return Map.of("success", false);
+            }
+        }
+        int timeout = timeoutSeconds > 0 ? timeoutSeconds : SecuyouSmartLockActions.DEFAULT_TIMEOUT_SECONDS;
+        SecuyouGroupResult result;
+        try {
+            result = currentHandler.setLockedAndConfirm(targets, locked, Duration.ofSeconds(timeout))
+                    .get(timeout + GRACE_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            logger.debug("Group command did not complete", e);
+            return Map.of("success", false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of("success", false);
+        }
+        Map<String, Object> outputs = new HashMap<>();
+        outputs.put("success", result.isSuccess());
+        outputs.put("confirmed", result.getConfirmedCount());
+        outputs.put("skipped", result.getSkippedCount());
+        outputs.put("failed", result.getFailures().size());
+        outputs.put("failedLocks", result.getFailures().stream().map(failure -> failure.getLock().getAsString())
+                .collect(Collectors.joining(",")));
+        outputs.put("maxLatencyMillis", result.getMaxLatencyMillis());
+        outputs.put("details", result.toString());
+        return outputs;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal.action;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouCommandResult;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouHistorySummary;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouSmartLockHandler;
+import org.openhab.core.automation.annotation.ActionInput;
+import org.openhab.core.automation.annotation.ActionOutput;
+import org.openhab.core.automation.annotation.ActionOutputs;
+import org.openhab.core.automation.annotation.RuleAction;
+import org.openhab.core.thing.binding.ThingActions;
+import org.openhab.core.thing.binding.ThingActionsScope;
+import org.openhab.core.thing.binding.ThingHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SecuyouSmartLockActions} lets rules lock, unlock and refresh a lock and get the outcome once the lock has
+ * confirmed it, instead of sending a command and polling the item. The result is the name of a
+ * {@link SecuyouCommandResult}. The lock history kept by the binding can be queried as well.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@ThingActionsScope(name = "bluetooth.secuyou")
+@NonNullByDefault
+public class SecuyouSmartLockActions implements ThingActions {
+
+    static final int DEFAULT_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Extra time on top of the confirmation timeout for the handler to process the request
+     */
+    private static final long GRACE_SECONDS = 5;
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouSmartLockActions.class);
+
+    private @Nullable SecuyouSmartLockHandler handler;
+
+    @Override
+    public void setThingHandler(@Nullable ThingHandler handler) {
+        if (handler instanceof SecuyouSmartLockHandler) {
+            this.handler = (SecuyouSmartLockHandler) handler;
+        }
+    }
+
+    @Override
+    public @Nullable ThingHandler getThingHandler() {
+        return handler;
+    }
+
+    @RuleAction(label = "lock and confirm", description = "Locks the door and waits until the lock reports it")
+    public @ActionOutput(name = "result", type = "java.lang.String") String lockAndConfirm(
+            @ActionInput(name = "timeoutSeconds", label = "Timeout in seconds") int timeoutSeconds) {
+        return setLocked(true, timeoutSeconds);
+    }
+
+    @RuleAction(label = "unlock and confirm", description = "Unlocks the door and waits until the lock reports it")
+    public @ActionOutput(name = "result", type = "java.lang.String") String unlockAndConfirm(
+            @ActionInput(name = "timeoutSeconds", label = "Timeout in seconds") int timeoutSeconds) {
+        return setLocked(false, timeoutSeconds);
+    }
+
+    @RuleAction(label = "refresh now", description = "Reads the lock status and waits until the channels are updated")
+    public @ActionOutput(name = "result", type = "java.lang.String") String refreshNow() {
+        SecuyouSmartLockHandler currentHandler = handler;
+        if (currentHandler == null) {
+            return SecuyouCommandResult.FAILED.name();
+        }
+        return await(currentHandler.refreshAndConfirm(Duration.ofSeconds(DEFAULT_TIMEOUT_SECONDS)),
+                DEFAULT_TIMEOUT_SECONDS);
+    }
+
+    @RuleAction(label = "query history", description = "Counts lock and handle transitions and sums up how long the "
+            + "lock was locked and the handle open within a time range")
+    public @ActionOutputs({ @ActionOutput(name = "locks", type = "java.lang.Integer"),
+            @ActionOutput(name = "unlocks", type = "java.lang.Integer"),
+            @ActionOutput(name = "handleOpens", type = "java.lang.Integer"),
+            @ActionOutput(name = "lockedSeconds", type = "java.lang.Long"),
+            @ActionOutput(name = "handleOpenSeconds", type = "java.lang.Long"),
+            @ActionOutput(name = "knownSeconds", type = "java.lang.Long"),
+            @ActionOutput(name = "lowBatterySeconds", type = "java.lang.Long"),
+            @ActionOutput(name = "worstBattery", type = "java.lang.String"),
+            @ActionOutput(name = "resolution", type = "java.lang.String") }) Map<String, Object> queryHistory(
+                    @ActionInput(name = "from", label = "From", type = "java.time.ZonedDateTime") ZonedDateTime from,
+                    @ActionInput(name = "to", label = "To", type = "java.time.ZonedDateTime") ZonedDateTime to) {
+        SecuyouSmartLockHandler currentHandler = handler;
+        SecuyouHistorySummary summary = currentHandler != null
+                ? currentHandler.queryHistory(from.toInstant(), to.toInstant())
+                : null;
+        if (summary == null) {
+            return Map.of();
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("locks", summary.getLocks());
+        result.put("unlocks", summary.getUnlocks());
+        result.put("handleOpens", summary.getHandleOpens());
+        result.put("lockedSeconds", summary.getLocked().toSeconds());
+        result.put("handleOpenSeconds", summary.getHandleOpen().toSeconds());
+        result.put("knownSeconds", summary.getKnown().toSeconds());
+        result.put("lowBatterySeconds", summary.getLowBattery().toSeconds());
+        result.put("worstBattery", summary.getWorstBattery().name());
+        result.put("resolution", summary.getDurationResolution().name());
+        return result;
+    }
+
+    public static String lockAndConfirm(ThingActions actions, int timeoutSeconds) {
+        return ((SecuyouSmartLockActions) actions).lockAndConfirm(timeoutSeconds);
+    }
+
+    public static String unlockAndConfirm(ThingActions actions, int timeoutSeconds) {
+        return ((SecuyouSmartLockActions) actions).unlockAndConfirm(timeoutSeconds);
+    }
+
+    public static String refreshNow(ThingActions actions) {
+        return ((SecuyouSmartLockActions) actions).refreshNow();
+    }
+
+    public static Map<String, Object> queryHistory(ThingActions actions, ZonedDateTime from, ZonedDateTime to) {
+        return ((SecuyouSmartLockActions) actions).queryHistory(from, to);
+    }
+
+    private String setLocked(boolean locked, int timeoutSeconds) {
+        SecuyouSmartLockHandler currentHandler = handler;
+        if (currentHandler == null) {
+            return SecuyouCommandResult.FAILED.name();
+        }
+        int timeout = timeoutSeconds > 0 ? timeoutSeconds : DEFAULT_TIMEOUT_SECONDS;
+        return await(currentHandler.setLockedAndConfirm(locked, Duration.ofSeconds(timeout)), timeout);
+    }
+
+    private static String await(Future<SecuyouCommandResult> result, int timeoutSeconds) {
+        try {
+            return result.get(timeoutSeconds + GRACE_SECONDS, TimeUnit.SECONDS).name();
+        } catch (TimeoutException e) {
+            return SecuyouCommandResult.TIMEOUT.name();
+        } catch (ExecutionException e) {
+            logger.debug("Confirmed command failed", e);
+            return SecuyouCommandResult.FAILED.name();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SecuyouCommandResult.FAILED.name();
+        }
+    }
+}
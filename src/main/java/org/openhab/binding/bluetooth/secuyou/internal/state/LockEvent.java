@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal.state;
+
+/**
+ * Discrete transitions between two status frames, published on the event trigger channel
+ *
+ * @author Arne Seime - Initial contribution
+ */
+public enum LockEvent {
+    /**
+     * Bolt moved to locked after a command from openHAB
+     */
+    LOCKED,
+    /**
+     * Bolt moved to unlocked after a command from openHAB
+     */
+    UNLOCKED,
+    /**
+     * Bolt moved to locked without a command from openHAB, by hand or from the app
+     */
+    LOCKED_MANUALLY,
+    /**
+     * Bolt moved to unlocked without a command from openHAB, by hand or from the app
+     */
+    UNLOCKED_MANUALLY,
+    HANDLE_OPENED,
+    /**
+     * Handle opened while the bolt reported locked, instead of {@link #HANDLE_OPENED}
+     */
+    HANDLE_OPENED_WHILE_LOCKED,
+    HANDLE_CLOSED,
+    HOME_LOCK_ENABLED,
+    HOME_LOCK_DISABLED,
+    /**
+     * Battery dropped to a worse level
+     */
+    BATTERY_LOW,
+    BATTERY_CRITICAL,
+    BATTERY_EMPTY
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal.state;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link SecuyouSmartLockSnapshot} is the last decoded lock status and when it was received, in a compact binary
+ * form suitable for persisting between restarts.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouSmartLockSnapshot {
+
+    /**
+     * VERSION - TIMESTAMP (8) - LOCK POSITION - HANDLE - BATTERY - HOMELOCK
+     */
+    public static final int ENCODED_LENGTH = 13;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final LockingMechanismPosition lockPosition;
+    private final HandleState handleState;
+    private final BatteryStatus batteryStatus;
+    private final boolean homeLockEnabled;
+    private final Instant timestamp;
+
+    public SecuyouSmartLockSnapshot(LockingMechanismPosition lockPosition, HandleState handleState,
+            BatteryStatus batteryStatus, boolean homeLockEnabled, Instant timestamp) {
+        this.lockPosition = lockPosition;
+        this.handleState = handleState;
+        this.batteryStatus = batteryStatus;
+        this.homeLockEnabled = homeLockEnabled;
+        this.timestamp = timestamp;
+    }
+
+    public static SecuyouSmartLockSnapshot of(SecuyouSmartLockState state, Instant timestamp) {
+        return new SecuyouSmartLockSnapshot(state.getLockPosition(), state.getHandleState(), state.getBatteryStatus(),
+                state.isHomeLockEnabled(), timestamp);
+    }
+
+    /**
+     * @return true if both describe the same lock status, regardless of when it was received
+     */
+    public boolean sameStatusAs(@Nullable SecuyouSmartLockSnapshot other) {
+        return other != null && lockPosition == other.lockPosition && handleState == other.handleState
+                && batteryStatus == other.batteryStatus && homeLockEnabled == other.homeLockEnabled;
+    }
+
+    public byte[] encode() {
+        return ByteBuffer.allocate(ENCODED_LENGTH).put(FORMAT_VERSION).putLong(timestamp.toEpochMilli())
+                .put((byte) lockPosition.ordinal()).put((byte) handleState.ordinal())
+                .put((byte) batteryStatus.ordinal()).put((byte) (homeLockEnabled ? 1 : 0)).array();
+    }
+
+    /**
+     * @return decoded snapshot, or null if the data is truncated or written by an incompatible version
+     */
+    public static @Nullable SecuyouSmartLockSnapshot decode(byte[] data) {
+        if (data.length != ENCODED_LENGTH || data[0] != FORMAT_VERSION) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, 1, ENCODED_LENGTH - 1);
+        long timestampMillis = buffer.getLong();
+        int lockPosition = buffer.get();
+        int handleState = buffer.get();
+        int batteryStatus = buffer.get();
+        boolean homeLockEnabled = buffer.get() != 0;
+        if (lockPosition < 0 || lockPosition >= LockingMechanismPosition.values().length || handleState < 0
+                || handleState >= HandleState.values().length || batteryStatus < 0
+                || batteryStatus >= BatteryStatus.values().length) {
+            return null;
+        }
+        return new SecuyouSmartLockSnapshot(LockingMechanismPosition.values()[lockPosition],
+                HandleState.values()[handleState], BatteryStatus.values()[batteryStatus], homeLockEnabled,
+                Instant.ofEpochMilli(timestampMillis));
+    }
+
+    public LockingMechanismPosition getLockPosition() {
+        return lockPosition;
+    }
+
+    public HandleState getHandleState() {
+        return handleState;
+    }
+
+    public BatteryStatus getBatteryStatus() {
+        return batteryStatus;
+    }
+
+    public boolean isHomeLockEnabled() {
+        return homeLockEnabled;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "SecuyouSmartLockSnapshot{" + "lockPosition=" + lockPosition + ", handleState=" + handleState
+                + ", batteryStatus=" + batteryStatus + ", homeLockEnabled=" + homeLockEnabled + ", timestamp="
+                + timestamp + '}';
+    }
+}
@@ -16,6 +16,8 @@ import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -34,23 +36,74 @@ import org.slf4j.LoggerFactory;
  */
 public class SecuyouSmartLockState {
 
-    private final Logger logger = LoggerFactory.getLogger(SecuyouSmartLockState.class);
+    /**
+     * LOCK POSITION - PINCODE_CORRECT - BATTERY - HANDLE_POS - HOMELOCK/RESCUE. Trailing bytes beyond the session
+     * token are ignored, so parsing cost is the same regardless of frame length.
+     */
+    public static final int LOCK_STATUS_MIN_LENGTH = 5;
+    public static final int LOCK_STATE_MIN_LENGTH = 1;
+    public static final int CHALLENGE_LENGTH = 16;
+
+    /**
+     * Status frames carry a reserved byte and a 10 byte block after the five status fields. Captured frames show the
+     * block staying identical across lock position and handle changes and only changing occasionally, so it is a per
+     * session token rather than a frame counter. It cannot number notifications, but a change tells that the lock
+     * started a new session since the previous frame, and notifications in between may have been lost. The lock also
+     * issues a new token when the home lock/rescue byte changes, such a change is not a gap.
+     */
+    public static final int TRAILER_TOKEN_OFFSET = 6;
+    public static final int TRAILER_TOKEN_LENGTH = 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(SecuyouSmartLockState.class);
 
     private boolean homeLockEnabled;
     private boolean pinCodeCorrect;
     private boolean rescueState;
     private BatteryStatus batteryStatus = BatteryStatus.UNKNOWN;
+    private HandleState previousHandleState = HandleState.UNKNOWN;
     private HandleState handleState = HandleState.UNKNOWN;
     private LockingMechanismPosition previousLockPosition = LockingMechanismPosition.UNKNOWN;
     private LockingMechanismPosition lockPosition = LockingMechanismPosition.UNKNOWN;
     private DeviceState deviceState = DeviceState.KEY_GENERATION;
     private boolean treatLockingInProgressAsLocked;
+    private long malformedFrameCount;
+    private final byte[] trailerToken = new byte[TRAILER_TOKEN_LENGTH];
+    private byte trailerTokenModeByte;
+    private boolean trailerTokenKnown;
+    private boolean trailerTokenChanged;
+    private LockingMechanismPosition lastSettledPosition = LockingMechanismPosition.UNKNOWN;
+    private boolean statusKnown;
+    private final EnumSet<LockEvent> events = EnumSet.noneOf(LockEvent.class);
 
     public SecuyouSmartLockState(boolean treatLockingInProgressAsLocked) {
 
         this.treatLockingInProgressAsLocked = treatLockingInProgressAsLocked;
     }
 
+    /**
+     * Return to the initial state, so that a single instance can be reused across reconnects. The malformed frame
+     * count is kept.
+     */
+    public void reset(boolean treatLockingInProgressAsLocked) {
+        this.treatLockingInProgressAsLocked = treatLockingInProgressAsLocked;
+        homeLockEnabled = false;
+        pinCodeCorrect = false;
+        rescueState = false;
+        batteryStatus = BatteryStatus.UNKNOWN;
+        previousHandleState = HandleState.UNKNOWN;
+        handleState = HandleState.UNKNOWN;
+        previousLockPosition = LockingMechanismPosition.UNKNOWN;
+        lockPosition = LockingMechanismPosition.UNKNOWN;
+        deviceState = DeviceState.KEY_GENERATION;
+        authenticationState = AuthenticationState.UNAUTHENTICATED;
+        challenge = null;
+        trailerTokenKnown = false;
+        trailerTokenChanged = false;
+        lastSettledPosition = LockingMechanismPosition.UNKNOWN;
+        statusKnown = false;
+        events.clear();
+    }
+
     public AuthenticationState getAuthenticationState() {
         return authenticationState;
     }
@@ -62,15 +115,45 @@ public class SecuyouSmartLockState {
     private AuthenticationState authenticationState = AuthenticationState.UNAUTHENTICATED;
     private byte[] challenge;
 
-    public void setChallenge(byte[] challenge) {
+    /**
+     * @return false if the challenge was malformed and has been ignored
+     */
+    public boolean setChallenge(byte[] challenge) {
+        if (challenge == null || challenge.length < CHALLENGE_LENGTH) {
+            malformedFrameCount++;
+            return false;
+        }
         this.challenge = challenge;
+        return true;
     }
 
-    public void setLockState(byte[] lockState) {
-        deviceState = DeviceState.fromValue(lockState[0]);
+    /**
+     * @return false if the frame was malformed and has been ignored, current device state is kept
+     */
+    public boolean setLockState(byte[] lockState) {
+        if (lockState == null || lockState.length < LOCK_STATE_MIN_LENGTH) {
+            malformedFrameCount++;
+            return false;
+        }
+        DeviceState newDeviceState = DeviceState.fromValue(lockState[0]);
+        if (newDeviceState == null) {
+            malformedFrameCount++;
+            return false;
+        }
+        deviceState = newDeviceState;
+        return true;
     }
 
-    public void setLockStatus(byte[] lockStatus) {
+    /**
+     * @return false if the frame was malformed and has been ignored, current state is kept
+     */
+    public boolean setLockStatus(byte[] lockStatus) {
+        if (lockStatus == null || lockStatus.length < LOCK_STATUS_MIN_LENGTH) {
+            malformedFrameCount++;
+            return false;
+        }
+        boolean previousHomeLockEnabled = homeLockEnabled;
+        BatteryStatus previousBatteryStatus = batteryStatus;
         previousLockPosition = lockPosition;
         lockPosition = LockingMechanismPosition.fromValue(lockStatus[0]);
         if (treatLockingInProgressAsLocked && lockPosition == LockingMechanismPosition.LOCKING_OPERATION_IN_PROGRESS) {
@@ -88,6 +171,7 @@ public class SecuyouSmartLockState {
 
         batteryStatus = BatteryStatus.fromValue(lockStatus[2]);
 
+        previousHandleState = handleState;
         if (lockStatus[3] != 0 && lockStatus[3] != 1) {
             handleState = HandleState.OPEN;
         } else {
@@ -108,6 +192,96 @@ public class SecuyouSmartLockState {
             homeLockEnabled = true;
             rescueState = true;
         }
+        updateTrailerToken(lockStatus);
+        updateEvents(previousHomeLockEnabled, previousBatteryStatus);
+        return true;
+    }
+
+    /**
+     * Derive the transitions since the previous frame. The first frame after a reset is the baseline and has none,
+     * whether the bolt was moved by hand or by a command is not known here, bolt moves are reported as
+     * {@link LockEvent#LOCKED}/{@link LockEvent#UNLOCKED}.
+     */
+    private void updateEvents(boolean previousHomeLockEnabled, BatteryStatus previousBatteryStatus) {
+        events.clear();
+        boolean settled = lockPosition == LockingMechanismPosition.LOCKED
+                || lockPosition == LockingMechanismPosition.UNLOCKED;
+        if (statusKnown) {
+            if (settled && lastSettledPosition != LockingMechanismPosition.UNKNOWN
+                    && lastSettledPosition != lockPosition) {
+                events.add(lockPosition == LockingMechanismPosition.LOCKED ? LockEvent.LOCKED : LockEvent.UNLOCKED);
+            }
+            if (previousHandleState == HandleState.CLOSED && handleState == HandleState.OPEN) {
+                events.add(lockPosition == LockingMechanismPosition.LOCKED ? LockEvent.HANDLE_OPENED_WHILE_LOCKED
+                        : LockEvent.HANDLE_OPENED);
+            } else if (previousHandleState == HandleState.OPEN && handleState == HandleState.CLOSED) {
+                events.add(LockEvent.HANDLE_CLOSED);
+            }
+            if (previousHomeLockEnabled != homeLockEnabled) {
+                events.add(homeLockEnabled ? LockEvent.HOME_LOCK_ENABLED : LockEvent.HOME_LOCK_DISABLED);
+            }
+            if (previousBatteryStatus != BatteryStatus.UNKNOWN && batteryStatus != BatteryStatus.UNKNOWN
+                    && batteryStatus.ordinal() > previousBatteryStatus.ordinal()) {
+                switch (batteryStatus) {
+                    case LOW:
+                        events.add(LockEvent.BATTERY_LOW);
+                        break;
+                    case CRITICAL:
+                        events.add(LockEvent.BATTERY_CRITICAL);
+                        break;
+                    case EMPTY:
+                        events.add(LockEvent.BATTERY_EMPTY);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        if (settled) {
+            lastSettledPosition = lockPosition;
+        }
+        statusKnown = true;
+    }
+
+    /**
+     * @return transitions caused by the last status frame, reused and only valid until the next frame
+     */
+    public Set<LockEvent> getEvents() {
+        return events;
+    }
+
+    private void updateTrailerToken(byte[] lockStatus) {
+        trailerTokenChanged = false;
+        if (lockStatus.length < TRAILER_TOKEN_OFFSET + TRAILER_TOKEN_LENGTH) {
+            return;
+        }
+        byte modeByte = lockStatus[4];
+        if (trailerTokenKnown && modeByte == trailerTokenModeByte && !Arrays.equals(trailerToken, 0,
+                TRAILER_TOKEN_LENGTH, lockStatus, TRAILER_TOKEN_OFFSET, TRAILER_TOKEN_OFFSET + TRAILER_TOKEN_LENGTH)) {
+            trailerTokenChanged = true;
+        }
+        System.arraycopy(lockStatus, TRAILER_TOKEN_OFFSET, trailerToken, 0, TRAILER_TOKEN_LENGTH);
+        trailerTokenModeByte = modeByte;
+        trailerTokenKnown = true;
+    }
+
+    /**
+     * @return true if the last status frame carried a different session token than the one before it, while the
+     *         home lock/rescue byte stayed the same
+     */
+    public boolean isTrailerTokenChanged() {
+        return trailerTokenChanged;
+    }
+
+    /**
+     * @return true once a status frame of this session carried a session token, so gaps can be detected
+     */
+    public boolean isTrailerTokenKnown() {
+        return trailerTokenKnown;
+    }
+
+    public long getMalformedFrameCount() {
+        return malformedFrameCount;
     }
 
     public byte[] generateChallengeResponse(String pinCode, String encryptionKeyHexString) {
@@ -144,6 +318,10 @@ public class SecuyouSmartLockState {
         return lockPosition;
     }
 
+    public boolean isPinCodeCorrect() {
+        return pinCodeCorrect;
+    }
+
     public boolean isHomeLockEnabled() {
         return homeLockEnabled;
     }
@@ -156,6 +334,10 @@ public class SecuyouSmartLockState {
         return handleState;
     }
 
+    public HandleState getPreviousHandleState() {
+        return previousHandleState;
+    }
+
     @Override
     public String toString() {
         return "SecuyouSmartLockState{" + "authenticationState=" + authenticationState + ", batteryStatus="
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouCircuitBreaker.Reason;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouCircuitBreakerTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final SecuyouCircuitBreaker breaker = new SecuyouCircuitBreaker();
+
+    @Test
+    void testBackoffSchedule() {
+        assertEquals(Duration.ofSeconds(30), SecuyouCircuitBreaker.backoff(1));
+        assertEquals(Duration.ofSeconds(60), SecuyouCircuitBreaker.backoff(2));
+        assertEquals(Duration.ofSeconds(120), SecuyouCircuitBreaker.backoff(3));
+        assertEquals(Duration.ofMinutes(32), SecuyouCircuitBreaker.backoff(7));
+        assertEquals(Duration.ofHours(6), SecuyouCircuitBreaker.backoff(11));
+        assertEquals(Duration.ofHours(6), SecuyouCircuitBreaker.backoff(1000));
+    }
+
+    @Test
+    void testSingleAuthenticationFailureDoesNotTrip() {
+        assertFalse(breaker.recordAuthenticationFailure(START));
+        assertFalse(breaker.recordAuthenticationFailure(START));
+        breaker.recordAuthenticated();
+        assertFalse(breaker.recordAuthenticationFailure(START));
+        assertFalse(breaker.recordAuthenticationFailure(START));
+
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.allowAttempt(START));
+        assertFalse(breaker.isBackingOff(START));
+    }
+
+    @Test
+    void testConsecutiveAuthenticationFailuresTrip() {
+        for (int i = 1; i < SecuyouCircuitBreaker.AUTHENTICATION_FAILURE_THRESHOLD; i++) {
+            assertFalse(breaker.recordAuthenticationFailure(START));
+        }
+        assertTrue(breaker.recordAuthenticationFailure(START));
+
+        assertTrue(breaker.isOpen());
+        assertEquals(Reason.AUTHENTICATION_FAILED, breaker.getReason());
+        assertFalse(breaker.allowAttempt(START.plusSeconds(29)));
+        assertTrue(breaker.isBackingOff(START.plusSeconds(29)));
+        assertEquals(START.plusSeconds(30), breaker.getNextAttempt());
+        assertTrue(breaker.describe(START.plusSeconds(20)).contains("next attempt in 10s"));
+    }
+
+    @Test
+    void testHalfOpenFailureTripsAgainWithLongerBackoff() {
+        tripOnAuthentication(START);
+
+        // Backoff expired, one attempt is let through
+        Instant halfOpen = START.plusSeconds(30);
+        assertTrue(breaker.allowAttempt(halfOpen));
+        assertFalse(breaker.isBackingOff(halfOpen));
+
+        // A single failure is enough to trip again, and the next backoff is twice as long
+        assertTrue(breaker.recordAuthenticationFailure(halfOpen));
+        assertFalse(breaker.allowAttempt(halfOpen.plusSeconds(59)));
+        assertTrue(breaker.allowAttempt(halfOpen.plusSeconds(60)));
+        assertTrue(breaker.describe(halfOpen).contains("trip #2"));
+    }
+
+    @Test
+    void testAuthenticationResets() {
+        tripOnAuthentication(START);
+        breaker.recordAuthenticated();
+
+        assertFalse(breaker.isOpen());
+        assertNull(breaker.getReason());
+        assertEquals("Circuit breaker closed", breaker.describe(START));
+
+        // Earlier trips are forgotten, tripping again starts at the initial backoff
+        tripOnAuthentication(START);
+        assertTrue(breaker.allowAttempt(START.plus(SecuyouCircuitBreaker.INITIAL_BACKOFF)));
+    }
+
+    @Test
+    void testMissingCharacteristics() {
+        assertFalse(breaker.recordMissingCharacteristics(START));
+        breaker.recordCharacteristicsFound();
+        assertFalse(breaker.recordMissingCharacteristics(START));
+        assertFalse(breaker.recordMissingCharacteristics(START));
+        assertTrue(breaker.recordMissingCharacteristics(START));
+        assertEquals(Reason.MISSING_CHARACTERISTICS, breaker.getReason());
+
+        breaker.reset();
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.allowAttempt(START));
+    }
+
+    private void tripOnAuthentication(Instant now) {
+        boolean tripped = false;
+        for (int i = 0; i < SecuyouCircuitBreaker.AUTHENTICATION_FAILURE_THRESHOLD; i++) {
+            tripped = breaker.recordAuthenticationFailure(now);
+        }
+        assertTrue(tripped);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouConfirmationsTest {
+
+    @Test
+    void testCompletesOnTargetPositionOnly() {
+        SecuyouConfirmations confirmations = new SecuyouConfirmations(new SecuyouVirtualScheduler());
+        CompletableFuture<SecuyouCommandResult> locked = confirmations.await(LockingMechanismPosition.LOCKED,
+                Duration.ofMinutes(1));
+        CompletableFuture<SecuyouCommandResult> anyFrame = confirmations.await(null, Duration.ofMinutes(1));
+
+        confirmations.onStatus(LockingMechanismPosition.LOCKING_OPERATION_IN_PROGRESS);
+        assertFalse(locked.isDone());
+        assertEquals(SecuyouCommandResult.CONFIRMED, anyFrame.getNow(null));
+
+        confirmations.onStatus(LockingMechanismPosition.LOCKED);
+        assertEquals(SecuyouCommandResult.CONFIRMED, locked.getNow(null));
+        assertTrue(confirmations.isEmpty());
+    }
+
+    @Test
+    void testTimeoutAndDisconnect() {
+        SecuyouVirtualScheduler scheduler = new SecuyouVirtualScheduler();
+        SecuyouConfirmations confirmations = new SecuyouConfirmations(scheduler);
+        CompletableFuture<SecuyouCommandResult> timingOut = confirmations.await(LockingMechanismPosition.UNLOCKED,
+                Duration.ofSeconds(30));
+        scheduler.advance(Duration.ofMillis(29_999));
+        assertFalse(timingOut.isDone());
+        scheduler.advance(Duration.ofMillis(1));
+        assertEquals(SecuyouCommandResult.TIMEOUT, timingOut.getNow(null));
+
+        CompletableFuture<SecuyouCommandResult> pending = confirmations.await(LockingMechanismPosition.UNLOCKED,
+                Duration.ofMinutes(1));
+        confirmations.failAll(SecuyouCommandResult.DISCONNECTED);
+        assertEquals(SecuyouCommandResult.DISCONNECTED, pending.getNow(null));
+        assertTrue(confirmations.isEmpty());
+        // Timeout job of a settled wait is gone
+        assertEquals(0, scheduler.getQueuedCount());
+    }
+}
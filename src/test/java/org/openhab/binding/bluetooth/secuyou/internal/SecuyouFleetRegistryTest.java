@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+import org.openhab.binding.bluetooth.secuyou.internal.state.HandleState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouFleetRegistryTest {
+
+    private static ThingUID lock(int index) {
+        return new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "lock" + index);
+    }
+
+    @Test
+    void testAggregatesFollowTransitions() {
+        SecuyouFleetRegistry registry = new SecuyouFleetRegistry();
+        List<SecuyouFleetAggregates> notified = new ArrayList<>();
+        registry.addListener(notified::add);
+
+        registry.update(lock(1), "Terrace", LockingMechanismPosition.LOCKED, HandleState.CLOSED, BatteryStatus.GOOD);
+        registry.update(lock(2), "Kitchen", LockingMechanismPosition.LOCKED, HandleState.CLOSED, BatteryStatus.LOW);
+        assertTrue(registry.getAggregates().isAllLocked());
+        assertEquals(BatteryStatus.LOW, registry.getAggregates().getLowestBattery());
+        assertEquals("Kitchen", registry.getAggregates().getLowestBatteryLock());
+
+        registry.update(lock(1), "Terrace", LockingMechanismPosition.UNLOCKED, HandleState.OPEN, BatteryStatus.GOOD);
+        assertFalse(registry.getAggregates().isAllLocked());
+        assertEquals(1, registry.getAggregates().getOpenHandleCount());
+
+        // Same status again is not a change
+        int notifications = notified.size();
+        registry.update(lock(1), "Terrace", LockingMechanismPosition.UNLOCKED, HandleState.OPEN, BatteryStatus.GOOD);
+        assertEquals(notifications, notified.size());
+
+        registry.remove(lock(1));
+        assertTrue(registry.getAggregates().isAllLocked());
+        assertEquals(1, registry.getAggregates().getLockCount());
+        assertEquals(0, registry.getAggregates().getOpenHandleCount());
+    }
+
+    @Test
+    void testIncrementalAggregatesMatchFullScan() {
+        SecuyouFleetRegistry registry = new SecuyouFleetRegistry();
+        Map<Integer, Object[]> current = new HashMap<>();
+        Random random = new Random(42);
+        LockingMechanismPosition[] positions = LockingMechanismPosition.values();
+        HandleState[] handles = HandleState.values();
+        BatteryStatus[] batteries = BatteryStatus.values();
+
+        for (int i = 0; i < 20_000; i++) {
+            int index = random.nextInt(50);
+            if (random.nextInt(20) == 0) {
+                registry.remove(lock(index));
+                current.remove(index);
+            } else {
+                Object[] status = { positions[random.nextInt(positions.length)],
+                        handles[random.nextInt(handles.length)], batteries[random.nextInt(batteries.length)] };
+                registry.update(lock(index), "Lock " + index, (LockingMechanismPosition) status[0],
+                        (HandleState) status[1], (BatteryStatus) status[2]);
+                current.put(index, status);
+            }
+
+            int locked = 0;
+            int open = 0;
+            int worstBattery = -1;
+            for (Object[] status : current.values()) {
+                locked += status[0] == LockingMechanismPosition.LOCKED ? 1 : 0;
+                open += status[1] == HandleState.OPEN ? 1 : 0;
+                if (status[2] != BatteryStatus.UNKNOWN) {
+                    worstBattery = Math.max(worstBattery, ((BatteryStatus) status[2]).ordinal());
+                }
+            }
+            SecuyouFleetAggregates aggregates = registry.getAggregates();
+            assertEquals(current.size(), aggregates.getLockCount());
+            assertEquals(locked, aggregates.getLockedCount());
+            assertEquals(open, aggregates.getOpenHandleCount());
+            assertEquals(worstBattery < 0 ? BatteryStatus.UNKNOWN : batteries[worstBattery],
+                    aggregates.getLowestBattery());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouGattScheduler.ClassStats;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouGattScheduler.Priority;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouGattScheduler.Stats;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouGattSchedulerTest {
+
+    private static final String ADAPTER = "bluetooth:bluez:hci0";
+    private static final ThingUID FRONT = new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "front");
+    private static final ThingUID BACK = new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "back");
+    private static final ThingUID GARAGE = new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "garage");
+
+    private final SecuyouVirtualScheduler scheduler = new SecuyouVirtualScheduler();
+    private final List<String> started = new ArrayList<>();
+    private final List<CompletableFuture<String>> running = new ArrayList<>();
+
+    @Test
+    void testCommandOvertakesQueuedPolls() {
+        SecuyouGattScheduler gattScheduler = new SecuyouGattScheduler(scheduler, scheduler, 1);
+        submit(gattScheduler, FRONT, Priority.POLL, "poll front");
+        submit(gattScheduler, BACK, Priority.POLL, "poll back");
+        submit(gattScheduler, GARAGE, Priority.PROPERTIES, "properties garage");
+        CompletableFuture<String> command = submit(gattScheduler, GARAGE, Priority.COMMAND, "lock garage");
+
+        completeAll();
+        assertEquals(List.of("poll front", "lock garage", "poll back", "properties garage"), started);
+        assertEquals("lock garage", command.getNow(null));
+    }
+
+    @Test
+    void testLocksTakeTurns() {
+        SecuyouGattScheduler gattScheduler = new SecuyouGattScheduler(scheduler, scheduler, 1);
+        submit(gattScheduler, BACK, Priority.PROPERTIES, "back 0");
+        for (int i = 0; i < 3; i++) {
+            submit(gattScheduler, FRONT, Priority.PROPERTIES, "front " + i);
+        }
+        submit(gattScheduler, GARAGE, Priority.PROPERTIES, "garage 0");
+
+        completeAll();
+        // A lock with a burst of reads does not hold up the others
+        assertEquals(List.of("back 0", "front 0", "garage 0", "front 1", "front 2"), started);
+    }
+
+    @Test
+    void testInFlightCapAndTimeout() {
+        SecuyouGattScheduler gattScheduler = new SecuyouGattScheduler(scheduler, scheduler, 2);
+        CompletableFuture<String> front = submit(gattScheduler, FRONT, Priority.POLL, "front");
+        submit(gattScheduler, BACK, Priority.POLL, "back");
+        CompletableFuture<String> garage = submit(gattScheduler, GARAGE, Priority.POLL, "garage");
+        assertEquals(List.of("front", "back"), started);
+        assertEquals(2, stats(gattScheduler).getInFlight());
+
+        // Neither operation is ever answered, the slots are freed once they time out
+        scheduler.advance(Duration.ofMillis(SecuyouGattScheduler.OPERATION_TIMEOUT_MILLIS - 1));
+        assertEquals(2, started.size());
+        scheduler.advance(Duration.ofMillis(1));
+        assertEquals(List.of("front", "back", "garage"), started);
+        assertEquals(1, stats(gattScheduler).getInFlight());
+        ExecutionException e = assertThrows(ExecutionException.class, front::get);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+
+        // A late answer does not free a slot a second time, nor change the result
+        running.get(0).complete("front");
+        assertEquals(1, stats(gattScheduler).getInFlight());
+        assertTrue(front.isCompletedExceptionally());
+        running.get(2).complete("garage");
+        assertEquals("garage", garage.getNow(null));
+        assertEquals(0, stats(gattScheduler).getInFlight());
+    }
+
+    @Test
+    void testCancelAndWaitStats() {
+        SecuyouGattScheduler gattScheduler = new SecuyouGattScheduler(scheduler, scheduler, 1);
+        submit(gattScheduler, FRONT, Priority.POLL, "poll front");
+        CompletableFuture<String> dropped = submit(gattScheduler, BACK, Priority.POLL, "poll back");
+        submit(gattScheduler, GARAGE, Priority.COMMAND, "lock garage");
+
+        gattScheduler.cancel(ADAPTER, BACK);
+        assertTrue(dropped.isCompletedExceptionally());
+
+        scheduler.advance(Duration.ofMillis(300));
+        running.get(0).complete("poll front");
+        scheduler.advance(Duration.ofMillis(200));
+        running.get(1).complete("lock garage");
+
+        assertEquals(List.of("poll front", "lock garage"), started);
+        ClassStats commands = stats(gattScheduler).get(Priority.COMMAND);
+        ClassStats polls = stats(gattScheduler).get(Priority.POLL);
+        assertNotNull(commands);
+        assertNotNull(polls);
+        assertEquals(1, commands.getOperations());
+        assertEquals(300, commands.getMaxWaitMillis());
+        assertEquals(1, polls.getOperations());
+        assertEquals(0, polls.getMaxWaitMillis());
+        assertEquals(0, polls.getQueued());
+        assertFalse(gattScheduler.getStats().isEmpty());
+    }
+
+    @Test
+    void testDispose() {
+        SecuyouGattScheduler gattScheduler = new SecuyouGattScheduler(scheduler, scheduler, 1);
+        CompletableFuture<String> inFlight = submit(gattScheduler, FRONT, Priority.POLL, "poll front");
+        CompletableFuture<String> queued = submit(gattScheduler, BACK, Priority.COMMAND, "lock back");
+        assertEquals(1, scheduler.getQueuedCount());
+
+        gattScheduler.dispose();
+        assertTrue(inFlight.isCompletedExceptionally());
+        assertTrue(queued.isCompletedExceptionally());
+        // The timeout of the running operation is cancelled, nothing is started after the fact
+        scheduler.advance(Duration.ofMillis(SecuyouGattScheduler.OPERATION_TIMEOUT_MILLIS));
+        running.get(0).complete("poll front");
+        assertEquals(List.of("poll front"), started);
+        assertTrue(submit(gattScheduler, GARAGE, Priority.COMMAND, "lock garage").isCompletedExceptionally());
+        assertEquals(List.of("poll front"), started);
+    }
+
+    private CompletableFuture<String> submit(SecuyouGattScheduler gattScheduler, ThingUID lock, Priority priority,
+            String name) {
+        return gattScheduler.submit(ADAPTER, lock, priority, () -> {
+            started.add(name);
+            CompletableFuture<String> operation = new CompletableFuture<>();
+            running.add(operation);
+            return operation;
+        });
+    }
+
+    /**
+     * Answer operations in the order they were started until nothing is left
+     */
+    private void completeAll() {
+        for (int i = 0; i < running.size(); i++) {
+            running.get(i).complete(started.get(i));
+        }
+    }
+
+    private static Stats stats(SecuyouGattScheduler gattScheduler) {
+        Stats stats = gattScheduler.getStats(ADAPTER);
+        assertNotNull(stats);
+        return stats;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouGroupCommandTest {
+
+    private static final ThingUID FRONT = new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "front");
+    private static final ThingUID BACK = new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "back");
+    private static final ThingUID GARAGE = new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "garage");
+    private static final ThingUID SHED = new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "shed");
+
+    private final SecuyouVirtualScheduler scheduler = new SecuyouVirtualScheduler();
+
+    @Test
+    void testCommandsRunInParallel() {
+        Map<ThingUID, CompletableFuture<SecuyouCommandResult>> sent = new HashMap<>();
+        CompletableFuture<SecuyouGroupResult> group = SecuyouGroupCommand.run(List.of(FRONT, BACK, GARAGE, SHED),
+                lock -> {
+                    if (lock.equals(BACK)) {
+                        return CompletableFuture.completedFuture(SecuyouCommandResult.ALREADY_IN_POSITION);
+                    } else if (lock.equals(SHED)) {
+                        throw new IllegalStateException("Handler gone");
+                    }
+                    CompletableFuture<SecuyouCommandResult> result = new CompletableFuture<>();
+                    sent.put(lock, result);
+                    return result;
+                }, scheduler);
+
+        // Both toggles are out before either lock has answered
+        assertEquals(2, sent.size());
+        scheduler.advance(Duration.ofMillis(1_500));
+        sent.get(FRONT).complete(SecuyouCommandResult.CONFIRMED);
+        assertFalse(group.isDone());
+        scheduler.advance(Duration.ofMillis(1_000));
+        sent.get(GARAGE).complete(SecuyouCommandResult.TIMEOUT);
+
+        SecuyouGroupResult result = group.getNow(null);
+        assertEquals(4, result.getLocks().size());
+        assertEquals(1, result.getConfirmedCount());
+        assertEquals(1, result.getSkippedCount());
+        assertEquals(2, result.getFailures().size());
+        assertEquals(GARAGE, result.getFailures().get(0).getLock());
+        assertEquals(SecuyouCommandResult.FAILED, result.getFailures().get(1).getResult());
+        assertEquals(1_500, result.getMaxLatencyMillis());
+        assertEquals(2_500, result.getLocks().get(2).getLatencyMillis());
+        assertFalse(result.isSuccess());
+    }
+
+    @Test
+    void testNothingToDo() {
+        SecuyouGroupResult result = SecuyouGroupCommand
+                .run(List.of(FRONT, BACK),
+                        lock -> CompletableFuture.completedFuture(SecuyouCommandResult.ALREADY_IN_POSITION), scheduler)
+                .getNow(null);
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getSkippedCount());
+        assertEquals(0, result.getMaxLatencyMillis());
+
+        assertTrue(SecuyouGroupCommand.run(List.of(), lock -> new CompletableFuture<>(), scheduler).getNow(null)
+                .isSuccess());
+    }
+}
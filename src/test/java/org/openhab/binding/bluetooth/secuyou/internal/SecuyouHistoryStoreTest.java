@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouHistoryStore.Resolution;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+import org.openhab.binding.bluetooth.secuyou.internal.state.HandleState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouHistoryStoreTest {
+
+    private static final String THING_UID = "bluetooth:secuyou_smart_lock:hci0:door";
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    @Nullable
+    Path directory;
+
+    private Path directory() {
+        Path dir = directory;
+        if (dir == null) {
+            throw new IllegalStateException("No temp dir");
+        }
+        return dir;
+    }
+
+    @Test
+    void testTransitionsAndDurations() throws IOException {
+        SecuyouHistoryStore store = new SecuyouHistoryStore(directory(), THING_UID);
+        record(store, 0, LockingMechanismPosition.LOCKED, HandleState.CLOSED);
+        record(store, 120, LockingMechanismPosition.UNLOCKED, HandleState.CLOSED);
+        record(store, 150, LockingMechanismPosition.UNLOCKED, HandleState.OPEN);
+        record(store, 160, LockingMechanismPosition.UNLOCKED, HandleState.CLOSED);
+        // Bolt moving is neither a transition nor a change of the locked time
+        record(store, 179, LockingMechanismPosition.LOCKING_OPERATION_IN_PROGRESS, HandleState.CLOSED);
+        record(store, 180, LockingMechanismPosition.LOCKED, HandleState.CLOSED);
+
+        SecuyouHistorySummary summary = query(store, START, START.plus(Duration.ofDays(1)), 240);
+        assertEquals(1, summary.getLocks());
+        assertEquals(1, summary.getUnlocks());
+        assertEquals(1, summary.getHandleOpens());
+        assertEquals(Duration.ofHours(3), summary.getLocked());
+        assertEquals(Duration.ofMinutes(10), summary.getHandleOpen());
+        assertEquals(Duration.ofHours(4), summary.getKnown());
+        assertEquals(BatteryStatus.GOOD, summary.getWorstBattery());
+        assertEquals(Resolution.HOURLY, summary.getDurationResolution());
+        assertEquals(Resolution.RAW, summary.getTransitionResolution());
+
+        // Offline for two hours, that time counts towards nothing
+        store.recordUnavailable(at(240));
+        record(store, 360, LockingMechanismPosition.LOCKED, HandleState.CLOSED);
+        summary = query(store, START, START.plus(Duration.ofDays(1)), 420);
+        assertEquals(Duration.ofHours(5), summary.getKnown());
+        assertEquals(Duration.ofHours(4), summary.getLocked());
+        assertEquals(1, summary.getLocks());
+
+        // Same answer after a restart, from a file that did not grow
+        store.close();
+        assertEquals(SecuyouHistoryStore.FILE_LENGTH, Files.size(store.getFile()));
+        SecuyouHistoryStore reopened = new SecuyouHistoryStore(directory(), THING_UID);
+        summary = query(reopened, START, START.plus(Duration.ofDays(1)), 420);
+        assertEquals(Duration.ofHours(5), summary.getKnown());
+        assertEquals(1, summary.getLocks());
+        assertEquals(1, summary.getUnlocks());
+        reopened.delete();
+    }
+
+    @Test
+    void testCoarserTiersOutliveFinerOnes() throws IOException {
+        SecuyouHistoryStore store = new SecuyouHistoryStore(directory(), THING_UID);
+        // Toggling every hour for 120 days wraps both the transition and the hourly ring
+        int hours = 120 * 24;
+        for (int hour = 0; hour < hours; hour++) {
+            store.record(at(hour * 60L),
+                    hour % 2 == 0 ? LockingMechanismPosition.LOCKED : LockingMechanismPosition.UNLOCKED,
+                    HandleState.CLOSED, hour < hours / 2 ? BatteryStatus.GOOD : BatteryStatus.LOW);
+        }
+        Instant now = at(hours * 60L);
+
+        SecuyouHistorySummary all = store.query(START, now, now);
+        assertNotNull(all);
+        assertEquals(Resolution.DAILY, all.getDurationResolution());
+        assertEquals(Resolution.DAILY, all.getTransitionResolution());
+        assertEquals(hours / 2 - 1, all.getLocks());
+        assertEquals(hours / 2, all.getUnlocks());
+        assertEquals(Duration.ofHours(hours), all.getKnown());
+        assertEquals(Duration.ofHours(hours / 2), all.getLocked());
+        assertEquals(Duration.ofHours(hours / 2), all.getLowBattery());
+        assertEquals(BatteryStatus.LOW, all.getWorstBattery());
+
+        SecuyouHistorySummary lastWeek = store.query(now.minus(Duration.ofDays(7)), now, now);
+        assertNotNull(lastWeek);
+        assertEquals(Resolution.HOURLY, lastWeek.getDurationResolution());
+        assertEquals(Resolution.RAW, lastWeek.getTransitionResolution());
+        assertEquals(7 * 12, lastWeek.getLocks());
+        assertEquals(Duration.ofDays(7), lastWeek.getKnown());
+
+        store.close();
+        assertEquals(SecuyouHistoryStore.FILE_LENGTH, Files.size(store.getFile()));
+    }
+
+    private static void record(SecuyouHistoryStore store, long minutes, LockingMechanismPosition position,
+            HandleState handle) {
+        store.record(at(minutes), position, handle, BatteryStatus.GOOD);
+    }
+
+    private static SecuyouHistorySummary query(SecuyouHistoryStore store, Instant from, Instant to, long minutes) {
+        SecuyouHistorySummary summary = store.query(from, to, at(minutes));
+        assertNotNull(summary);
+        return summary;
+    }
+
+    private static Instant at(long minutes) {
+        return START.plus(Duration.ofMinutes(minutes));
+    }
+}
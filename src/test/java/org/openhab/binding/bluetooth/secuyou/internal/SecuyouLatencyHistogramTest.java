@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouLatencyHistogramTest {
+
+    @Test
+    void testPercentiles() {
+        SecuyouLatencyHistogram histogram = new SecuyouLatencyHistogram();
+        assertEquals(-1, histogram.getPercentileMillis(50));
+
+        // 90 fast reads, 9 slow ones and one outlier
+        for (int i = 0; i < 90; i++) {
+            histogram.sample(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.sample(TimeUnit.MILLISECONDS.toNanos(700));
+        }
+        histogram.sample(TimeUnit.MILLISECONDS.toNanos(5_000));
+        histogram.failure();
+
+        assertEquals(101, histogram.getOperations());
+        assertEquals(1, histogram.getFailures());
+        // Rounded up to the bucket bound
+        assertEquals(128, histogram.getPercentileMillis(50));
+        assertEquals(128, histogram.getPercentileMillis(90));
+        assertEquals(1024, histogram.getPercentileMillis(99));
+        assertEquals(5_000, histogram.getPercentileMillis(100));
+        assertEquals(5_000, histogram.getMaxMillis());
+    }
+
+    @Test
+    void testBucketEdges() {
+        SecuyouLatencyHistogram histogram = new SecuyouLatencyHistogram();
+        histogram.sample(TimeUnit.MILLISECONDS.toNanos(64));
+        assertEquals(64, histogram.getPercentileMillis(100));
+        histogram.sample(TimeUnit.MICROSECONDS.toNanos(300));
+        assertEquals(1, histogram.getPercentileMillis(50));
+
+        // Beyond the last bound only the max is known
+        histogram.sample(TimeUnit.MINUTES.toNanos(5));
+        assertEquals(TimeUnit.MINUTES.toMillis(5), histogram.getPercentileMillis(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getOperations());
+        assertEquals(-1, histogram.getPercentileMillis(50));
+    }
+}
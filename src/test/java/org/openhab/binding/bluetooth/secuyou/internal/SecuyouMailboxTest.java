@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouMailboxTest {
+
+    @Test
+    void testRunsTasksInSubmissionOrderAcrossBatches() {
+        SecuyouVirtualScheduler scheduler = new SecuyouVirtualScheduler();
+        SecuyouMailbox mailbox = new SecuyouMailbox(scheduler, "test", scheduler);
+        List<Integer> executed = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int task = i;
+            mailbox.execute(() -> executed.add(task));
+        }
+        assertEquals(100, mailbox.getDepth());
+
+        scheduler.runUntilIdle();
+
+        assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), executed);
+        assertEquals(100, mailbox.getProcessedCount());
+        assertEquals(0, mailbox.getDepth());
+        assertEquals(100, mailbox.getMaxDepth());
+    }
+
+    @Test
+    void testKeepsDrainingAfterFailingTask() {
+        SecuyouVirtualScheduler scheduler = new SecuyouVirtualScheduler();
+        SecuyouMailbox mailbox = new SecuyouMailbox(scheduler, "test", scheduler);
+        List<String> executed = new ArrayList<>();
+        mailbox.execute(() -> executed.add("before"));
+        mailbox.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+        mailbox.execute(() -> executed.add("after"));
+
+        scheduler.runUntilIdle();
+
+        assertEquals(List.of("before", "after"), executed);
+        assertEquals(1, mailbox.getFailedCount());
+        assertEquals(3, mailbox.getProcessedCount());
+
+        mailbox.execute(() -> executed.add("later"));
+        scheduler.runUntilIdle();
+        assertEquals(List.of("before", "after", "later"), executed);
+    }
+
+    @Test
+    void testMeasuresQueueAndProcessingTimeWithInjectedClock() {
+        SecuyouVirtualScheduler clock = new SecuyouVirtualScheduler();
+        List<Runnable> pool = new ArrayList<>();
+        SecuyouMailbox mailbox = new SecuyouMailbox(pool::add, "test", clock);
+        mailbox.execute(() -> clock.advance(Duration.ofMillis(2)));
+
+        clock.advance(Duration.ofMillis(5));
+        assertEquals(1, pool.size());
+        pool.remove(0).run();
+
+        assertEquals(5_000, mailbox.getMaxQueueMicros());
+        assertEquals(2_000, mailbox.getMaxProcessingMicros());
+    }
+}
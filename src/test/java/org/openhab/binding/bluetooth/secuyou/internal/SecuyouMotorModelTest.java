@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouMotorModelTest {
+
+    private static final long SETTLE_MILLIS = 5000;
+
+    @Test
+    void testConfiguredWindowUntilLearned() {
+        SecuyouMotorModel model = new SecuyouMotorModel();
+        for (int i = 1; i < SecuyouMotorModel.MIN_SAMPLES; i++) {
+            model.sample(TimeUnit.MILLISECONDS.toNanos(1200));
+            assertFalse(model.isLearned());
+            assertEquals(SETTLE_MILLIS, model.getExpectedCompletionMillis(SETTLE_MILLIS));
+            assertEquals(SETTLE_MILLIS, model.getDeadlineMillis(SETTLE_MILLIS));
+        }
+        model.sample(TimeUnit.MILLISECONDS.toNanos(1200));
+        assertTrue(model.isLearned());
+        assertTrue(model.getExpectedCompletionMillis(SETTLE_MILLIS) < SETTLE_MILLIS);
+    }
+
+    @Test
+    void testDeadlineFollowsMotor() {
+        SecuyouMotorModel regular = new SecuyouMotorModel();
+        SecuyouMotorModel erratic = new SecuyouMotorModel();
+        for (int i = 0; i < 50; i++) {
+            regular.sample(TimeUnit.MILLISECONDS.toNanos(1500));
+            erratic.sample(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 1500 : 4500));
+        }
+
+        assertEquals(1500, regular.getMeanMillis());
+        assertEquals(1500, regular.getExpectedCompletionMillis(SETTLE_MILLIS));
+        assertEquals(1500 + SecuyouMotorModel.DEADLINE_SLACK_MILLIS, regular.getDeadlineMillis(SETTLE_MILLIS));
+
+        assertTrue(erratic.getExpectedCompletionMillis(SETTLE_MILLIS) > 3000, () -> "Erratic motor " + erratic);
+        assertTrue(erratic.getDeadlineMillis(SETTLE_MILLIS) > 4500, () -> "Erratic motor " + erratic);
+
+        SecuyouMotorModel stuck = new SecuyouMotorModel();
+        for (int i = 0; i < 10; i++) {
+            stuck.sample(TimeUnit.MINUTES.toNanos(i + 1));
+        }
+        assertEquals(SecuyouMotorModel.MAX_DEADLINE_MILLIS, stuck.getDeadlineMillis(SETTLE_MILLIS));
+    }
+
+    @Test
+    void testOutcomes() {
+        SecuyouMotorModel model = new SecuyouMotorModel();
+        model.recordOutcome(LockingMechanismPosition.LOCKED);
+        model.recordOutcome(LockingMechanismPosition.LOCKED);
+        model.recordOutcome(LockingMechanismPosition.UNLOCKED);
+        model.recordOutcome(LockingMechanismPosition.UNKNOWN);
+        assertEquals(2, model.getLockedOutcomes());
+        assertEquals(1, model.getUnlockedOutcomes());
+
+        model.reset();
+        assertEquals(0, model.getLockedOutcomes());
+        assertEquals(0, model.getUnlockedOutcomes());
+    }
+
+    @Test
+    void testExpectedOutcome() {
+        SecuyouMotorModel model = new SecuyouMotorModel();
+        // A toggle from a known position ends in the other one
+        assertEquals(LockingMechanismPosition.UNLOCKED, model.getExpectedOutcome(LockingMechanismPosition.LOCKED));
+        assertEquals(LockingMechanismPosition.LOCKED, model.getExpectedOutcome(LockingMechanismPosition.UNLOCKED));
+        assertEquals(LockingMechanismPosition.UNKNOWN, model.getExpectedOutcome(LockingMechanismPosition.UNKNOWN));
+
+        // From an unknown position only once this lock clearly reports its operations in one direction
+        for (int i = 0; i < 3; i++) {
+            model.recordOutcome(LockingMechanismPosition.LOCKED);
+        }
+        assertEquals(LockingMechanismPosition.LOCKED, model.getExpectedOutcome(LockingMechanismPosition.UNKNOWN));
+        model.recordOutcome(LockingMechanismPosition.UNLOCKED);
+        assertEquals(LockingMechanismPosition.LOCKED, model.getExpectedOutcome(LockingMechanismPosition.UNKNOWN));
+        model.recordOutcome(LockingMechanismPosition.UNLOCKED);
+        assertEquals(LockingMechanismPosition.UNKNOWN, model.getExpectedOutcome(LockingMechanismPosition.UNKNOWN));
+        assertEquals(LockingMechanismPosition.LOCKED, model.getExpectedOutcome(LockingMechanismPosition.UNLOCKED));
+    }
+
+    @Test
+    void testReset() {
+        SecuyouMotorModel model = new SecuyouMotorModel();
+        for (int i = 0; i < SecuyouMotorModel.MIN_SAMPLES; i++) {
+            model.sample(TimeUnit.MILLISECONDS.toNanos(2000));
+        }
+        assertTrue(model.isLearned());
+
+        model.reset();
+        assertFalse(model.isLearned());
+        assertEquals(0, model.getSampleCount());
+        assertEquals(-1, model.getMeanMillis());
+        assertEquals(SETTLE_MILLIS, model.getDeadlineMillis(SETTLE_MILLIS));
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+import org.openhab.binding.bluetooth.secuyou.internal.state.HandleState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouOutageCoordinatorTest {
+
+    private static final String ADAPTER = "bluetooth:bluez:hci0";
+    private static final int LOCK_COUNT = 10;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final SecuyouFleetRegistry fleetRegistry = new SecuyouFleetRegistry();
+    private final SecuyouOutageCoordinator coordinator = new SecuyouOutageCoordinator(scheduler, fleetRegistry);
+
+    @AfterEach
+    void tearDown() {
+        coordinator.dispose();
+        scheduler.shutdownNow();
+    }
+
+    private static ThingUID lock(int index) {
+        return new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "lock" + index);
+    }
+
+    @Test
+    void testSingleDisconnectIsNotAnOutage() {
+        for (int i = 0; i < LOCK_COUNT; i++) {
+            coordinator.register(ADAPTER, lock(i), adapter -> {
+            });
+        }
+        coordinator.disconnected(ADAPTER, lock(0));
+        assertFalse(coordinator.offerOffline(ADAPTER, lock(0)));
+        assertFalse(coordinator.isOutage(ADAPTER));
+        assertEquals(0, coordinator.admitHandshake(ADAPTER, System.nanoTime()));
+    }
+
+    @Test
+    void testAdapterOutageIsBatched() throws InterruptedException {
+        CountDownLatch offline = new CountDownLatch(LOCK_COUNT);
+        List<SecuyouFleetAggregates> fleetTransitions = new ArrayList<>();
+        for (int i = 0; i < LOCK_COUNT; i++) {
+            coordinator.register(ADAPTER, lock(i), adapter -> offline.countDown());
+            fleetRegistry.update(lock(i), "Lock " + i, LockingMechanismPosition.LOCKED, HandleState.CLOSED,
+                    BatteryStatus.GOOD);
+        }
+        fleetRegistry.addListener(fleetTransitions::add);
+
+        for (int i = 0; i < LOCK_COUNT; i++) {
+            coordinator.disconnected(ADAPTER, lock(i));
+        }
+        // Every grace period expiring is taken over by the outage
+        for (int i = 0; i < LOCK_COUNT; i++) {
+            assertTrue(coordinator.offerOffline(ADAPTER, lock(i)));
+        }
+        assertTrue(coordinator.isOutage(ADAPTER));
+        assertEquals(1, fleetTransitions.size());
+        assertEquals(0, fleetTransitions.get(0).getLockedCount());
+
+        assertTrue(offline.await(5, TimeUnit.SECONDS));
+
+        // Recovery is staggered
+        long now = System.nanoTime();
+        coordinator.connected(ADAPTER, lock(0));
+        coordinator.connected(ADAPTER, lock(1));
+        assertEquals(0, coordinator.admitHandshake(ADAPTER, now));
+        assertEquals(SecuyouOutageCoordinator.RECOVERY_STAGGER_MILLIS, coordinator.admitHandshake(ADAPTER, now));
+
+        for (int i = 2; i < LOCK_COUNT; i++) {
+            coordinator.connected(ADAPTER, lock(i));
+        }
+        assertFalse(coordinator.isOutage(ADAPTER));
+        assertEquals(0, coordinator.admitHandshake(ADAPTER, now));
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouPollCoordinator.Registration;
+import org.openhab.binding.bluetooth.secuyou.internal.SecuyouPollCoordinator.Stats;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouPollCoordinatorTest {
+
+    private static final long WINDOW_MILLIS = 10_000;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // Windows are driven by the test, the scheduled ones do not fire before the test is done
+    private final SecuyouPollCoordinator coordinator = new SecuyouPollCoordinator(scheduler, WINDOW_MILLIS, 0);
+
+    @AfterEach
+    void tearDown() {
+        coordinator.dispose();
+        scheduler.shutdownNow();
+    }
+
+    private static long seconds(long start, long seconds) {
+        return start + TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    @Test
+    void testDuePollsShareWindow() {
+        List<String> polled = new ArrayList<>();
+        long start = System.nanoTime();
+        coordinator.register("hci0", 60_000, () -> polled.add("a"));
+        coordinator.register("hci0", 60_000, () -> polled.add("b"));
+        coordinator.register("hci0", 120_000, () -> polled.add("c"));
+        coordinator.register("hci1", 60_000, () -> polled.add("other adapter"));
+
+        assertEquals(0, coordinator.runWindow("hci0", seconds(start, 40)));
+        // Due within half a window, polled together
+        assertEquals(2, coordinator.runWindow("hci0", seconds(start, 57)));
+        assertEquals(List.of("a", "b"), polled);
+        assertEquals(0, coordinator.runWindow("hci0", seconds(start, 67)));
+        // a and b due again at 117s, c at 120s
+        assertEquals(3, coordinator.runWindow("hci0", seconds(start, 117)));
+
+        Stats stats = coordinator.getStats("hci0");
+        assertEquals(3, stats.getLocks());
+        assertEquals(5, stats.getPolls());
+        assertEquals(0.5, stats.getUtilisation(), 0.001);
+        assertEquals(2.5, stats.getAverageBatchSize(), 0.001);
+        // Early polls are not stale
+        assertTrue(stats.getMaxStalenessMillis() < 1_000);
+    }
+
+    @Test
+    void testCancelRemovesAdapter() {
+        Registration registration = coordinator.register("hci0", 60_000, () -> {
+        });
+        registration.cancel();
+        assertNull(coordinator.getStats("hci0"));
+        assertEquals(0, coordinator.runWindow("hci0", System.nanoTime() + TimeUnit.HOURS.toNanos(1)));
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouRttEstimatorTest {
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void testRtoFollowsMeasuredRoundTrips() {
+        SecuyouRttEstimator fast = new SecuyouRttEstimator();
+        SecuyouRttEstimator slow = new SecuyouRttEstimator();
+        assertEquals(SecuyouRttEstimator.INITIAL_RTO_MILLIS, fast.getRtoMillis());
+
+        for (int i = 0; i < 50; i++) {
+            fast.sample(TimeUnit.MILLISECONDS.toNanos(60));
+            slow.sample(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 1500 : 2500));
+        }
+
+        assertEquals(60, fast.getSrttMillis());
+        assertEquals(SecuyouRttEstimator.MIN_RTO_MILLIS, fast.getRtoMillis());
+        assertTrue(slow.getRtoMillis() > 2500, () -> "Slow lock rto " + slow);
+    }
+
+    @Test
+    void testFastLockKeepsMinimumGrace() {
+        SecuyouRttEstimator estimator = new SecuyouRttEstimator();
+        for (int i = 0; i < 50; i++) {
+            estimator.sample(TimeUnit.MILLISECONDS.toNanos(60));
+        }
+        long now = 100 * MINUTE_NANOS;
+        estimator.recordDisconnect(now);
+        assertEquals(SecuyouRttEstimator.MIN_GRACE_MILLIS, estimator.getDisconnectGraceMillis(now));
+
+        estimator.recordDisconnect(now + MINUTE_NANOS);
+        assertEquals(2 * SecuyouRttEstimator.MIN_GRACE_MILLIS, estimator.getDisconnectGraceMillis(now + MINUTE_NANOS));
+    }
+
+    @Test
+    void testFailuresBackOff() {
+        SecuyouRttEstimator estimator = new SecuyouRttEstimator();
+        estimator.backoff();
+        assertEquals(2 * SecuyouRttEstimator.INITIAL_RTO_MILLIS, estimator.getRtoMillis());
+        for (int i = 0; i < 20; i++) {
+            estimator.backoff();
+        }
+        assertEquals(SecuyouRttEstimator.MAX_RTO_MILLIS, estimator.getRtoMillis());
+    }
+
+    @Test
+    void testFlappingStretchesDisconnectGrace() {
+        SecuyouRttEstimator estimator = new SecuyouRttEstimator();
+        long now = 100 * MINUTE_NANOS;
+        estimator.recordDisconnect(now);
+        long stableGrace = estimator.getDisconnectGraceMillis(now);
+        assertEquals(3 * SecuyouRttEstimator.INITIAL_RTO_MILLIS, stableGrace);
+
+        estimator.recordDisconnect(now + MINUTE_NANOS);
+        estimator.recordDisconnect(now + 2 * MINUTE_NANOS);
+        assertEquals(4 * stableGrace, estimator.getDisconnectGraceMillis(now + 2 * MINUTE_NANOS));
+
+        // Old disconnects fall out of the window
+        long later = now + 2 * MINUTE_NANOS + TimeUnit.MILLISECONDS.toNanos(SecuyouRttEstimator.FLAP_WINDOW_MILLIS) + 1;
+        estimator.recordDisconnect(later);
+        assertEquals(stableGrace, estimator.getDisconnectGraceMillis(later));
+
+        for (int i = 0; i < 20; i++) {
+            estimator.recordDisconnect(later + i);
+        }
+        assertEquals(SecuyouRttEstimator.MAX_GRACE_MILLIS, estimator.getDisconnectGraceMillis(later + 20));
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.BluetoothCharacteristic;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+
+/**
+ * Measures the heap retained per lock when running a large number of handlers. The size is estimated by walking the
+ * object graph rather than read from the heap, so it does not depend on when the garbage collector runs.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouSmartLockHandlerFootprintTest {
+
+    private static final int LOCK_COUNT = 2000;
+
+    /**
+     * Generous on purpose, estimated retained size is well below this. Catches per lock allocations growing with
+     * frames or state resets rather than a few fields more or less.
+     */
+    private static final long MAX_RETAINED_BYTES_PER_LOCK = 8 * 1024;
+
+    // UNLOCKED - PINCODE_CORRECT - BATTERY GOOD - HANDLE CLOSED - HOMELOCK
+    private static final byte[] STATUS_FRAME = { 0, 16, 0, 1, 1, 0 };
+    private static final int FRAMES_PER_RESET = 5;
+
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    /** Node or slot of a JDK collection, whose fields cannot be read reflectively */
+    private static final int COLLECTION_ENTRY_BYTES = 32;
+
+    @Test
+    void testRetainedHeapPerLock() throws InterruptedException {
+        // Stub only, so invocations are not recorded and do not count towards the footprint
+        Thing thing = mock(Thing.class, withSettings().stubOnly());
+        when(thing.getUID()).thenReturn(new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "footprint"));
+        ThingHandlerCallback callback = mock(ThingHandlerCallback.class, withSettings().stubOnly());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        SecuyouFleetRegistry fleetRegistry = new SecuyouFleetRegistry();
+        SecuyouPollCoordinator pollCoordinator = new SecuyouPollCoordinator(scheduler);
+        SecuyouOutageCoordinator outageCoordinator = new SecuyouOutageCoordinator(scheduler, fleetRegistry);
+        SecuyouGattScheduler gattScheduler = new SecuyouGattScheduler(scheduler);
+        BluetoothCharacteristic statusCharacteristic = new BluetoothCharacteristic(
+                SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC, 0);
+
+        List<Object> shared = List.of(thing, callback, fleetRegistry, pollCoordinator, outageCoordinator,
+                gattScheduler, statusCharacteristic);
+        try {
+            long sharedBefore = reachableBytes(shared);
+            List<SecuyouSmartLockHandler> handlers = new ArrayList<>(LOCK_COUNT);
+            for (int i = 0; i < LOCK_COUNT; i++) {
+                SecuyouSmartLockHandler handler = new SecuyouSmartLockHandler(thing, fleetRegistry, pollCoordinator,
+                        outageCoordinator, gattScheduler);
+                handler.setCallback(callback);
+                handlers.add(handler);
+                // Several frames per lock on both sides of a state reset as done on reconnect, retained size must not
+                // grow with traffic
+                sendFrames(handler, statusCharacteristic);
+                handler.getMailbox().execute(() -> handler.getLockState().reset(false));
+                sendFrames(handler, statusCharacteristic);
+            }
+            for (SecuyouSmartLockHandler handler : handlers) {
+                awaitDrained(handler.getMailbox());
+            }
+            List<Object> roots = new ArrayList<>(shared);
+            roots.add(handlers);
+            long retainedPerLock = (reachableBytes(roots) - sharedBefore) / LOCK_COUNT;
+
+            assertEquals(LOCK_COUNT, handlers.size());
+            assertTrue(retainedPerLock < MAX_RETAINED_BYTES_PER_LOCK,
+                    () -> "Retained " + retainedPerLock + " bytes per lock, budget is " + MAX_RETAINED_BYTES_PER_LOCK);
+        } finally {
+            pollCoordinator.dispose();
+            outageCoordinator.dispose();
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static void sendFrames(SecuyouSmartLockHandler handler, BluetoothCharacteristic statusCharacteristic) {
+        for (int frame = 0; frame < FRAMES_PER_RESET; frame++) {
+            handler.onCharacteristicUpdate(statusCharacteristic, STATUS_FRAME);
+        }
+    }
+
+    private static void awaitDrained(SecuyouMailbox mailbox) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (mailbox.getDepth() > 0 || mailbox.getProcessedCount() < 2 * FRAMES_PER_RESET + 1) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Mailbox not drained: " + mailbox);
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Estimated size of everything reachable from the roots, assuming a 64 bit VM with compressed references. Fields
+     * of JDK classes cannot be read, their collections are followed through the public API instead. Threads and
+     * class loaders are counted but not followed.
+     */
+    private static long reachableBytes(Collection<Object> roots) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>(roots);
+        long bytes = 0;
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (object instanceof Class || !visited.add(object)) {
+                continue;
+            }
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                int length = Array.getLength(object);
+                Class<?> componentType = type.getComponentType();
+                bytes += align(ARRAY_HEADER_BYTES + (long) length * fieldBytes(componentType));
+                if (!componentType.isPrimitive()) {
+                    for (int i = 0; i < length; i++) {
+                        push(pending, Array.get(object, i));
+                    }
+                }
+                continue;
+            }
+            bytes += align(OBJECT_HEADER_BYTES + instanceFieldBytes(type));
+            if (object instanceof Thread || object instanceof ClassLoader) {
+                continue;
+            }
+            if (type.getModule().isNamed()) {
+                bytes += followJdkObject(object, pending);
+            } else {
+                followFields(object, pending);
+            }
+        }
+        return bytes;
+    }
+
+    private static long followJdkObject(Object object, Deque<Object> pending) {
+        if (object instanceof String) {
+            return align(ARRAY_HEADER_BYTES + ((String) object).length());
+        }
+        Collection<?> elements;
+        if (object instanceof Map) {
+            List<Object> entries = new ArrayList<>();
+            ((Map<?, ?>) object).forEach((key, value) -> {
+                entries.add(key);
+                entries.add(value);
+            });
+            elements = entries;
+        } else if (object instanceof Collection) {
+            elements = new ArrayList<>((Collection<?>) object);
+        } else {
+            return 0;
+        }
+        elements.forEach(element -> push(pending, element));
+        return (long) elements.size() * COLLECTION_ENTRY_BYTES;
+    }
+
+    private static void followFields(Object object, Deque<Object> pending) {
+        for (Class<?> type = object.getClass(); type != null; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()
+                        && field.trySetAccessible()) {
+                    try {
+                        push(pending, field.get(object));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long instanceFieldBytes(Class<?> objectType) {
+        long bytes = 0;
+        for (Class<?> type = objectType; type != null; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    bytes += fieldBytes(field.getType());
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static int fieldBytes(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_BYTES;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static void push(Deque<Object> pending, @Nullable Object object) {
+        if (object != null) {
+            pending.push(object);
+        }
+    }
+}
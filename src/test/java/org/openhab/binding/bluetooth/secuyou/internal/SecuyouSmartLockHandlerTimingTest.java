@@ -0,0 +1,608 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.BluetoothCharacteristic;
+import org.openhab.binding.bluetooth.BluetoothDevice;
+import org.openhab.binding.bluetooth.BluetoothDevice.ConnectionState;
+import org.openhab.binding.bluetooth.BluetoothService;
+import org.openhab.binding.bluetooth.notification.BluetoothConnectionStatusNotification;
+import org.openhab.binding.bluetooth.secuyou.internal.state.AuthenticationState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+
+/**
+ * Runs the handler's timers in virtual time, hours of reconnects take milliseconds and always run the same way
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouSmartLockHandlerTimingTest {
+
+    // LOCKED - PINCODE_CORRECT - BATTERY GOOD - HANDLE CLOSED - HOMELOCK OFF
+    private static final byte[] LOCKED_FRAME = { 1, 16, 0, 1, 0 };
+    private static final byte[] UNLOCKED_FRAME = { 0, 16, 0, 1, 0 };
+    private static final byte[] MOVING_FRAME = { 2, 16, 0, 1, 0 };
+    private static final byte[] HANDLE_OPEN_FRAME = { 0, 16, 0, 2, 0 };
+    private static final byte[] UNKNOWN_FRAME = { 9, 16, 0, 1, 0 };
+    // LOCKED, reserved byte and session token
+    private static final byte[] TOKEN_FRAME = { 1, 16, 0, 1, 0, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+    /**
+     * Writes complete at once in virtual time, so the pause between rescue steps is at its lower bound
+     */
+    private static final long RESCUE_STEP_MILLIS = SecuyouSmartLockHandler.MIN_RESCUE_STEP_DELAY_MILLIS;
+    private static final BluetoothCharacteristic LOCK_STATUS = new BluetoothCharacteristic(
+            SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC, 0);
+    private static final BluetoothCharacteristic LOCK_STATE = new BluetoothCharacteristic(
+            SecuyouBindingConstants.LOCK_STATE_CHARACTERISTIC, 0);
+    private static final BluetoothCharacteristic CONFIRM = new BluetoothCharacteristic(
+            SecuyouBindingConstants.CONFIRM_CHARACTERISTIC, 0);
+    private static final BluetoothCharacteristic SERIAL = new BluetoothCharacteristic(
+            SecuyouBindingConstants.SERIAL_CHARACTERISTIC, 0);
+
+    private final SecuyouVirtualScheduler scheduler = new SecuyouVirtualScheduler();
+    private final SecuyouFleetRegistry fleetRegistry = new SecuyouFleetRegistry();
+    private final SecuyouPollCoordinator pollCoordinator = new SecuyouPollCoordinator(scheduler, scheduler, 10_000,
+            1_000);
+    private final SecuyouOutageCoordinator outageCoordinator = new SecuyouOutageCoordinator(scheduler, fleetRegistry);
+    private final SecuyouGattScheduler gattScheduler = new SecuyouGattScheduler(scheduler, scheduler,
+            SecuyouGattScheduler.DEFAULT_MAX_IN_FLIGHT);
+    private final SecuyouConfiguration configuration = new SecuyouConfiguration();
+    private final List<UUID> reads = new ArrayList<>();
+    private final List<CompletableFuture<byte[]>> pendingReads = new ArrayList<>();
+    private final List<byte[]> writes = new ArrayList<>();
+    private boolean withSerialNumber = false;
+    private @NonNullByDefault({}) TimingHandler handler;
+
+    /**
+     * Lets the test hand over the device, the bluetooth binding does that in initialize
+     */
+    private static class TimingHandler extends SecuyouSmartLockHandler {
+
+        TimingHandler(Thing thing, SecuyouFleetRegistry fleetRegistry, SecuyouPollCoordinator pollCoordinator,
+                SecuyouOutageCoordinator outageCoordinator, SecuyouGattScheduler gattScheduler, SecuyouClock clock,
+                ScheduledExecutorService timer) {
+            super(thing, fleetRegistry, pollCoordinator, outageCoordinator, gattScheduler, clock, timer);
+        }
+
+        void attach(BluetoothDevice device) {
+            this.device = device;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Thing thing = mock(Thing.class, withSettings().stubOnly());
+        when(thing.getUID()).thenReturn(new ThingUID(SecuyouBindingConstants.THING_TYPE_SMART_LOCK, "timing"));
+        handler = new TimingHandler(thing, fleetRegistry, pollCoordinator, outageCoordinator, gattScheduler,
+                scheduler, scheduler);
+        handler.setCallback(mock(ThingHandlerCallback.class, withSettings().stubOnly()));
+        handler.setConfiguration(configuration);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pollCoordinator.dispose();
+        outageCoordinator.dispose();
+    }
+
+    @Test
+    void testDisconnectGracePeriod() {
+        connect();
+        assertEquals(1, fleetRegistry.getAggregates().getLockedCount());
+
+        disconnect();
+        // Three initial RTOs of one second
+        scheduler.advance(Duration.ofMillis(2_999));
+        assertEquals(1, fleetRegistry.getAggregates().getLockedCount());
+        scheduler.advance(Duration.ofMillis(1));
+        assertEquals(0, fleetRegistry.getAggregates().getLockedCount());
+        assertEquals(0, handler.getMailbox().getFailedCount());
+    }
+
+    @Test
+    void testFlappingLockStaysOnlineForHours() {
+        connect();
+        disconnect();
+        scheduler.advance(Duration.ofSeconds(2));
+        connect();
+
+        // Drops every two minutes for six hours, each time back after five seconds. Longer than the initial grace
+        // period, but the grace period grows with the flapping.
+        for (int i = 0; i < 180; i++) {
+            scheduler.advance(Duration.ofSeconds(115));
+            disconnect();
+            scheduler.advance(Duration.ofSeconds(5));
+            assertEquals(1, fleetRegistry.getAggregates().getLockedCount(), "Went offline in flap " + i);
+            connect();
+        }
+
+        // Quiet for longer than the flap window, the next drop gets the short grace period again
+        scheduler.advance(Duration.ofMinutes(30));
+        disconnect();
+        scheduler.advance(Duration.ofSeconds(3));
+        assertEquals(0, fleetRegistry.getAggregates().getLockedCount());
+        assertEquals(0, handler.getMailbox().getFailedCount());
+    }
+
+    @Test
+    void testMotorModelLearnsFromNotifications() {
+        connect();
+        for (int i = 0; i < 6; i++) {
+            frame(MOVING_FRAME);
+            scheduler.advance(Duration.ofMillis(2_000));
+            frame(i % 2 == 0 ? UNLOCKED_FRAME : LOCKED_FRAME);
+            scheduler.advance(Duration.ofMinutes(1));
+        }
+
+        SecuyouMotorModel model = handler.getMotorModel();
+        assertEquals(6, model.getSampleCount());
+        assertEquals(2_000, model.getMeanMillis());
+        assertEquals(3, model.getLockedOutcomes());
+        assertEquals(3, model.getUnlockedOutcomes());
+        // The settle window now ends at the learned deadline rather than the configured five seconds
+        assertTrue(model.getDeadlineMillis(5_000) < 5_000, () -> "Motor model " + model);
+        assertEquals(0, handler.getMailbox().getFailedCount());
+    }
+
+    @Test
+    void testSettleWindowHoldsBackTransientPositions() {
+        connectDevice();
+
+        // The final position follows within the window, the transient one is held back and nothing is read
+        frame(MOVING_FRAME);
+        assertEquals(1, fleetRegistry.getAggregates().getLockedCount());
+        scheduler.advance(Duration.ofSeconds(2));
+        frame(UNLOCKED_FRAME);
+        assertEquals(0, fleetRegistry.getAggregates().getLockedCount());
+        assertEquals(1, diagnostics().getSuppressedTransitions());
+        assertTrue(reads.isEmpty(), () -> "Reads " + reads);
+
+        // The final position does not follow, the status is read once the window has expired
+        frame(MOVING_FRAME);
+        frame(MOVING_FRAME);
+        scheduler.advance(Duration.ofMillis(configuration.lockSettleMillis - 1));
+        assertTrue(reads.isEmpty(), () -> "Reads " + reads);
+        scheduler.advance(Duration.ofMillis(1));
+        assertEquals(List.of(SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC), reads);
+        assertEquals(3, diagnostics().getSuppressedTransitions());
+
+        // Settle window disabled, transient positions are published as they come
+        configuration.lockSettleMillis = 0;
+        frame(LOCKED_FRAME);
+        frame(MOVING_FRAME);
+        assertEquals(3, diagnostics().getSuppressedTransitions());
+        assertEquals(0, handler.getMailbox().getFailedCount());
+    }
+
+    @Test
+    void testFleetKeepsSettledPositionWithoutSettleWindow() {
+        configuration.lockSettleMillis = 0;
+        connectDevice();
+        assertEquals(1, fleetRegistry.getAggregates().getLockedCount());
+
+        // Transient positions are published on the lock channels, the fleet keeps the last settled position
+        frame(MOVING_FRAME);
+        assertEquals(1, fleetRegistry.getAggregates().getLockedCount());
+        frame(UNKNOWN_FRAME);
+        assertEquals(1, fleetRegistry.getAggregates().getLockedCount());
+        frame(UNLOCKED_FRAME);
+        assertEquals(0, fleetRegistry.getAggregates().getLockedCount());
+        frame(MOVING_FRAME);
+        assertEquals(0, fleetRegistry.getAggregates().getLockedCount());
+        frame(LOCKED_FRAME);
+        assertEquals(1, fleetRegistry.getAggregates().getLockedCount());
+        assertEquals(0, diagnostics().getSuppressedTransitions());
+    }
+
+    @Test
+    void testAutoLockOnHandleClose() {
+        configuration.autoLockOnHandleCloseMillis = 2_000;
+        connectDevice();
+        frame(UNLOCKED_FRAME);
+        frame(HANDLE_OPEN_FRAME);
+
+        // Handle opened again before the delay has passed, nothing is sent
+        frame(UNLOCKED_FRAME);
+        scheduler.advance(Duration.ofMillis(1_000));
+        frame(HANDLE_OPEN_FRAME);
+        scheduler.advance(Duration.ofSeconds(5));
+        assertTrue(writes.isEmpty());
+        assertEquals(-1, diagnostics().getMaxAutoLockReactionMicros());
+
+        // Handle left closed, the toggle goes out once the delay has passed
+        frame(UNLOCKED_FRAME);
+        scheduler.advance(Duration.ofMillis(1_999));
+        assertTrue(writes.isEmpty());
+        scheduler.advance(Duration.ofMillis(1));
+        assertEquals(1, writes.size());
+        assertArrayEquals(SecuyouBindingConstants.CMD_TOGGLE_LOCK, writes.get(0));
+        assertEquals(2_000_000, diagnostics().getLastAutoLockReactionMicros());
+        frame(LOCKED_FRAME);
+
+        // Without a delay the toggle is written from the notification itself
+        configuration.autoLockOnHandleCloseMillis = 0;
+        frame(UNLOCKED_FRAME);
+        frame(HANDLE_OPEN_FRAME);
+        frame(UNLOCKED_FRAME);
+        assertEquals(2, writes.size());
+        SecuyouLockDiagnostics diagnostics = diagnostics();
+        assertEquals(0, diagnostics.getLastAutoLockReactionMicros());
+        assertEquals(2_000_000, diagnostics.getMaxAutoLockReactionMicros());
+        assertEquals(0, handler.getMailbox().getFailedCount());
+    }
+
+    @Test
+    void testRescueChainAndCooldown() {
+        configuration.attemptLockRescue = true;
+        configuration.lockSettleMillis = 0;
+        connectDevice();
+
+        // First toggle goes out with the unknown position, the second one a step later, then the status is read
+        frame(UNKNOWN_FRAME);
+        assertEquals(1, writes.size());
+        scheduler.advance(Duration.ofMillis(RESCUE_STEP_MILLIS - 1));
+        assertEquals(1, writes.size());
+        scheduler.advance(Duration.ofMillis(1));
+        assertEquals(2, writes.size());
+        assertTrue(reads.isEmpty(), () -> "Reads " + reads);
+        scheduler.advance(Duration.ofMillis(RESCUE_STEP_MILLIS));
+        assertEquals(List.of(SecuyouBindingConstants.LOCK_STATUS_CHARACTERISTIC), reads);
+        pendingReads.get(0).complete(LOCKED_FRAME);
+        scheduler.runUntilIdle();
+        assertEquals(LockingMechanismPosition.LOCKED, handler.getLockState().getLockPosition());
+
+        // Unknown again within three minutes of the last rescue, nothing is sent
+        scheduler.advance(Duration.ofMinutes(3).minusMillis(2 * RESCUE_STEP_MILLIS));
+        frame(UNKNOWN_FRAME);
+        assertEquals(2, writes.size());
+
+        // Once the cooldown has passed the next rescue starts, the chain gives up if the read is never answered
+        scheduler.advance(Duration.ofMillis(1));
+        frame(UNKNOWN_FRAME);
+        assertEquals(3, writes.size());
+        scheduler.advance(Duration.ofMinutes(1));
+        assertEquals(4, writes.size());
+        assertEquals(2, reads.size());
+        assertEquals(0, handler.getMailbox().getFailedCount());
+    }
+
+    @Test
+    void testRescueSkipsSecondToggleAtExpectedPosition() {
+        configuration.attemptLockRescue = true;
+        configuration.lockSettleMillis = 0;
+        connectDevice();
+
+        // Unlocking from LOCKED is interrupted, the first toggle gets the lock to UNLOCKED, where it was heading
+        frame(MOVING_FRAME);
+        assertEquals(1, writes.size());
+        frame(UNLOCKED_FRAME);
+        scheduler.advance(Duration.ofMinutes(1));
+        assertEquals(1, writes.size());
+        assertEquals(1, handler.getMotorModel().getUnlockedOutcomes());
+
+        // Locking from UNLOCKED is interrupted, but the first toggle leaves the lock UNLOCKED: toggle again
+        scheduler.advance(Duration.ofMinutes(3));
+        frame(MOVING_FRAME);
+        assertEquals(2, writes.size());
+        frame(UNLOCKED_FRAME);
+        scheduler.advance(Duration.ofMillis(RESCUE_STEP_MILLIS));
+        assertEquals(3, writes.size());
+        assertEquals(0, handler.getMailbox().getFailedCount());
+    }
+
+    @Test
+    void testDisposeCancelsRescueAndAutoLock() {
+        configuration.attemptLockRescue = true;
+        configuration.lockSettleMillis = 0;
+        configuration.autoLockOnHandleCloseMillis = 2_000;
+        connectDevice();
+        frame(UNLOCKED_FRAME);
+        frame(HANDLE_OPEN_FRAME);
+        frame(UNLOCKED_FRAME);
+        frame(UNKNOWN_FRAME);
+        int written = writes.size();
+
+        handler.dispose();
+        scheduler.runUntilIdle();
+        scheduler.advance(Duration.ofMinutes(10));
+        assertEquals(written, writes.size());
+        assertTrue(reads.isEmpty(), () -> "Reads " + reads);
+    }
+
+    @Test
+    void testPropertyReadTimeoutEndsWithRead() {
+        connectWithSerialNumber();
+
+        // Answering the read cancels both the GATT operation timeout and the property read timeout
+        int queued = scheduler.getQueuedCount();
+        answerReads("1234".getBytes());
+        assertEquals(queued - 2, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void testDisposeCancelsPropertyReadTimeout() {
+        connectWithSerialNumber();
+
+        // The GATT operation and the property read timeouts both go with the handler
+        int queued = scheduler.getQueuedCount();
+        handler.dispose();
+        scheduler.runUntilIdle();
+        assertEquals(queued - 2, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void testDisposeCancelsSettleWindow() {
+        connectDevice();
+        frame(MOVING_FRAME);
+
+        handler.dispose();
+        scheduler.runUntilIdle();
+        scheduler.advance(Duration.ofMinutes(10));
+        assertTrue(reads.isEmpty(), () -> "Reads " + reads);
+    }
+
+    @Test
+    void testNoToggleFromUnknownPosition() {
+        connectDevice();
+        frame(UNKNOWN_FRAME);
+        assertEquals(LockingMechanismPosition.UNKNOWN, handler.getLockState().getLockPosition());
+
+        CompletableFuture<SecuyouCommandResult> result = handler.setLockedAndConfirm(true, Duration.ofSeconds(10));
+        scheduler.runUntilIdle();
+        assertEquals(SecuyouCommandResult.UNKNOWN_POSITION, result.getNow(null));
+        assertTrue(writes.isEmpty());
+
+        frame(UNLOCKED_FRAME);
+        CompletableFuture<SecuyouCommandResult> retry = handler.setLockedAndConfirm(true, Duration.ofSeconds(10));
+        scheduler.runUntilIdle();
+        assertEquals(1, writes.size());
+        frame(LOCKED_FRAME);
+        assertEquals(SecuyouCommandResult.CONFIRMED, retry.getNow(null));
+    }
+
+    @Test
+    void testDiagnostics() {
+        SecuyouLockDiagnostics before = diagnostics();
+        assertEquals(-1, before.getLastFrameAgeMillis());
+        assertEquals(0, before.getStatusFrames());
+
+        connect();
+        scheduler.advance(Duration.ofSeconds(90));
+        SecuyouLockDiagnostics after = diagnostics();
+        assertTrue(after.isConnected());
+        assertEquals(1, after.getStatusFrames());
+        assertEquals(90_000, after.getLastFrameAgeMillis());
+        assertEquals(LockingMechanismPosition.LOCKED, after.getPosition());
+        assertEquals(0, after.getGattOperations());
+        assertEquals(0, after.getMailboxFailures());
+        assertTrue(after.getMailbox().contains("0 failed"), after::getMailbox);
+        assertEquals(0, after.getStatusGaps());
+        assertEquals(0, after.getSkippedPolls());
+    }
+
+    @Test
+    void testStatusGaps() {
+        connectDevice();
+        // LOCKED, reserved byte and session token
+        frame(new byte[] { 1, 16, 0, 1, 0, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+        // Home lock enabled, the lock issues a new token along with it
+        frame(new byte[] { 1, 16, 0, 1, 1, 0, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20 });
+        assertEquals(0, diagnostics().getStatusGaps());
+
+        // New session without a mode change
+        frame(new byte[] { 1, 16, 0, 1, 1, 0, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30 });
+        assertEquals(1, diagnostics().getStatusGaps());
+    }
+
+    @Test
+    void testStatusGapReadsStatus() {
+        connectDevice();
+        frame(TOKEN_FRAME);
+        frame(TOKEN_FRAME);
+        assertEquals(List.of(), reads);
+
+        // New session without a mode change, the frames in between may be lost
+        frame(new byte[] { 1, 16, 0, 1, 0, 0, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30 });
+        assertEquals(List.of(LOCK_STATUS.getUuid()), reads);
+    }
+
+    @Test
+    void testKeepAliveStretchesWithoutGaps() {
+        configuration.keepAliveSeconds = 60;
+        connectDevice();
+        frame(TOKEN_FRAME);
+        // Key confirmed, the handler goes online and starts the keep-alive
+        handler.getLockState().setAuthenticationState(AuthenticationState.AUTHENTICATION_IN_PROGRESS);
+        handler.onCharacteristicUpdate(LOCK_STATE, new byte[] { 1 });
+        scheduler.runUntilIdle();
+        answerReads(TOKEN_FRAME);
+        reads.clear();
+
+        // Without the stretch this is 15 polls
+        int polls = pollFor(Duration.ofMinutes(30), TOKEN_FRAME);
+        assertTrue(polls <= 8, () -> polls + " polls");
+        assertTrue(diagnostics().getSkippedPolls() > 0);
+
+        // A gap is read at once and brings back the configured interval
+        byte[] newSession = { 1, 16, 0, 1, 0, 0, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30 };
+        frame(newSession);
+        assertEquals(List.of(LOCK_STATUS.getUuid()), reads);
+        answerReads(newSession);
+        reads.clear();
+        assertEquals(1, pollFor(Duration.ofSeconds(70), newSession));
+    }
+
+    @Test
+    void testReconnectWhenBackoffExpires() {
+        ConnectionState[] state = { ConnectionState.CONNECTED };
+        int[] connects = new int[1];
+        BluetoothDevice device = mock(BluetoothDevice.class);
+        when(device.getConnectionState()).thenAnswer(invocation -> state[0]);
+        when(device.connect()).thenAnswer(invocation -> {
+            connects[0]++;
+            return true;
+        });
+        handler.attach(device);
+        connect();
+        handler.getLockState().setAuthenticationState(AuthenticationState.AUTHENTICATED);
+
+        // Pin code rejected in three frames in a row trips the breaker, the handler drops the connection
+        for (int i = 0; i < 3; i++) {
+            frame(new byte[] { 1, 0, 0, 1, 0 });
+        }
+        state[0] = ConnectionState.DISCONNECTED;
+        disconnect();
+
+        scheduler.advance(SecuyouCircuitBreaker.INITIAL_BACKOFF.minusMillis(1));
+        assertEquals(0, connects[0]);
+        scheduler.advance(Duration.ofMillis(1));
+        assertEquals(1, connects[0]);
+        assertEquals(0, handler.getMailbox().getFailedCount());
+    }
+
+    @Test
+    void testPollWindowsOverHours() {
+        int[] polls = new int[1];
+        for (int i = 0; i < 20; i++) {
+            pollCoordinator.register("adapter", 60_000, () -> polls[0]++);
+        }
+        scheduler.advance(Duration.ofHours(12));
+
+        SecuyouPollCoordinator.Stats stats = pollCoordinator.getStats("adapter");
+        // 20 locks polled once a minute, give or take the last window
+        assertEquals(20 * 12 * 60, polls[0], 20);
+        assertEquals(polls[0], stats.getPolls());
+        assertEquals(20, stats.getAverageBatchSize(), 0.5);
+    }
+
+    /**
+     * Connect a device that records reads and writes, resolve its GATT profile and skip the handshake
+     */
+    private void connectDevice() {
+        BluetoothService keyService = new BluetoothService(SecuyouBindingConstants.KEY_SERVICE);
+        keyService.addCharacteristic(LOCK_STATUS);
+        keyService.addCharacteristic(LOCK_STATE);
+        keyService.addCharacteristic(CONFIRM);
+        BluetoothDevice device = mock(BluetoothDevice.class);
+        when(device.getConnectionState()).thenReturn(ConnectionState.CONNECTED);
+        when(device.getServices(SecuyouBindingConstants.KEY_SERVICE)).thenReturn(keyService);
+        if (withSerialNumber) {
+            when(device.getCharacteristic(SecuyouBindingConstants.SERIAL_CHARACTERISTIC)).thenReturn(SERIAL);
+        }
+        when(device.enableNotifications(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(device.readCharacteristic(any())).thenAnswer(invocation -> {
+            reads.add(invocation.<BluetoothCharacteristic> getArgument(0).getUuid());
+            CompletableFuture<byte[]> read = new CompletableFuture<>();
+            pendingReads.add(read);
+            return read;
+        });
+        when(device.writeCharacteristic(any(), any())).thenAnswer(invocation -> {
+            writes.add(invocation.<byte[]> getArgument(1));
+            return CompletableFuture.completedFuture(null);
+        });
+        handler.attach(device);
+        handler.onConnectionStateChange(new BluetoothConnectionStatusNotification(ConnectionState.CONNECTED));
+        handler.onServicesDiscovered();
+        scheduler.runUntilIdle();
+        handler.getLockState().setAuthenticationState(AuthenticationState.AUTHENTICATED);
+        reads.clear();
+        pendingReads.clear();
+        writes.clear();
+        frame(LOCKED_FRAME);
+    }
+
+    /**
+     * Let time pass in steps of one poll window, answering every poll with the given frame
+     *
+     * @return number of polls
+     */
+    private int pollFor(Duration duration, byte[] frame) {
+        int polls = 0;
+        for (Duration passed = Duration.ZERO; passed.compareTo(duration) < 0; passed = passed.plusSeconds(10)) {
+            scheduler.advance(Duration.ofSeconds(10));
+            if (!reads.isEmpty()) {
+                polls++;
+                reads.clear();
+                answerReads(frame);
+                frame(frame);
+            }
+        }
+        return polls;
+    }
+
+    private void answerReads(byte[] frame) {
+        for (CompletableFuture<byte[]> read : pendingReads) {
+            read.complete(frame);
+        }
+        pendingReads.clear();
+        scheduler.runUntilIdle();
+    }
+
+    private SecuyouLockDiagnostics diagnostics() {
+        CompletableFuture<SecuyouLockDiagnostics> diagnostics = handler.getDiagnostics();
+        scheduler.runUntilIdle();
+        return diagnostics.join();
+    }
+
+    /**
+     * Connect and go online, the serial number read is sent but not answered
+     */
+    private void connectWithSerialNumber() {
+        withSerialNumber = true;
+        connectDevice();
+        handler.getLockState().setAuthenticationState(AuthenticationState.AUTHENTICATION_IN_PROGRESS);
+        handler.onCharacteristicUpdate(LOCK_STATE, new byte[] { 1 });
+        scheduler.runUntilIdle();
+        answerReads(LOCKED_FRAME);
+        reads.clear();
+        scheduler.advance(Duration.ofSeconds(2));
+        assertEquals(List.of(SecuyouBindingConstants.SERIAL_CHARACTERISTIC), reads);
+    }
+
+    private void connect() {
+        handler.onConnectionStateChange(new BluetoothConnectionStatusNotification(ConnectionState.CONNECTED));
+        frame(LOCKED_FRAME);
+    }
+
+    private void frame(byte[] frame) {
+        handler.onCharacteristicUpdate(LOCK_STATUS, frame);
+        scheduler.runUntilIdle();
+    }
+
+    private void disconnect() {
+        handler.onConnectionStateChange(new BluetoothConnectionStatusNotification(ConnectionState.DISCONNECTED));
+        scheduler.runUntilIdle();
+    }
+}
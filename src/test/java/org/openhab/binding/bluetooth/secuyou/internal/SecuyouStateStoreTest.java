@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.bluetooth.secuyou.internal.state.BatteryStatus;
+import org.openhab.binding.bluetooth.secuyou.internal.state.HandleState;
+import org.openhab.binding.bluetooth.secuyou.internal.state.LockingMechanismPosition;
+import org.openhab.binding.bluetooth.secuyou.internal.state.SecuyouSmartLockSnapshot;
+
+/**
+ * Test cases
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouStateStoreTest {
+
+    private static final String THING_UID = "bluetooth:secuyou_smart_lock:hci0:door";
+
+    @TempDir
+    @Nullable
+    Path directory;
+
+    private Path directory() {
+        Path dir = directory;
+        if (dir == null) {
+            throw new IllegalStateException("No temp dir");
+        }
+        return dir;
+    }
+
+    @Test
+    void testSnapshotSurvivesRestart() {
+        SecuyouSmartLockSnapshot snapshot = new SecuyouSmartLockSnapshot(LockingMechanismPosition.LOCKED,
+                HandleState.CLOSED, BatteryStatus.LOW, true, Instant.ofEpochMilli(1_700_000_000_000L));
+        new SecuyouStateStore(directory(), THING_UID).save(snapshot);
+
+        SecuyouSmartLockSnapshot restored = new SecuyouStateStore(directory(), THING_UID).load();
+
+        assertNotNull(restored);
+        assertTrue(snapshot.sameStatusAs(restored));
+        assertEquals(snapshot.getTimestamp(), restored.getTimestamp());
+    }
+
+    @Test
+    void testUnchangedStatusIsNotRewritten() throws IOException {
+        SecuyouStateStore store = new SecuyouStateStore(directory(), THING_UID);
+        store.save(new SecuyouSmartLockSnapshot(LockingMechanismPosition.UNLOCKED, HandleState.OPEN,
+                BatteryStatus.GOOD, false, Instant.ofEpochMilli(1000)));
+        store.save(new SecuyouSmartLockSnapshot(LockingMechanismPosition.UNLOCKED, HandleState.OPEN,
+                BatteryStatus.GOOD, false, Instant.ofEpochMilli(2000)));
+
+        assertEquals(SecuyouSmartLockSnapshot.ENCODED_LENGTH, Files.size(store.getFile()));
+        SecuyouSmartLockSnapshot restored = store.load();
+        assertNotNull(restored);
+        assertEquals(Instant.ofEpochMilli(1000), restored.getTimestamp());
+    }
+
+    @Test
+    void testMissingOrCorruptFileIsIgnored() throws IOException {
+        SecuyouStateStore store = new SecuyouStateStore(directory(), THING_UID);
+        assertNull(store.load());
+
+        Files.write(store.getFile(), new byte[] { 1, 2, 3 });
+        assertNull(store.load());
+
+        store.delete();
+        assertFalse(Files.exists(store.getFile()));
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Single threaded scheduler and clock running in virtual time. Nothing runs until the test advances the clock, then
+ * every task due runs on the test thread in due time order, with the clock set to the task's due time. Hours of
+ * timers run in milliseconds and the same test always sees the same ordering.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouVirtualScheduler extends AbstractExecutorService implements ScheduledExecutorService, SecuyouClock {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final PriorityQueue<VirtualTask<?>> queue = new PriorityQueue<>();
+    private long nowNanos;
+    private long sequence;
+    private boolean shutdown;
+
+    @Override
+    public long nanoTime() {
+        return nowNanos;
+    }
+
+    @Override
+    public Instant instant() {
+        return EPOCH.plusNanos(nowNanos);
+    }
+
+    /**
+     * Run everything due within the given time, including tasks scheduled by the tasks themselves
+     */
+    public void advance(Duration duration) {
+        long targetNanos = nowNanos + duration.toNanos();
+        VirtualTask<?> task;
+        while ((task = queue.peek()) != null && task.dueNanos <= targetNanos) {
+            queue.poll();
+            nowNanos = Math.max(nowNanos, task.dueNanos);
+            task.run();
+        }
+        nowNanos = targetNanos;
+    }
+
+    /**
+     * Run everything due now without moving the clock
+     */
+    public void runUntilIdle() {
+        advance(Duration.ZERO);
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        enqueue(new VirtualTask<@Nullable Void>(Executors.callable(command, null), nowNanos, 0));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return enqueue(new VirtualTask<@Nullable Void>(Executors.callable(command, null), dueIn(delay, unit), 0));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return enqueue(new VirtualTask<>(callable, dueIn(delay, unit), 0));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        return enqueue(new VirtualTask<@Nullable Void>(Executors.callable(command, null), dueIn(initialDelay, unit),
+                unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        // Tasks take no virtual time, so fixed delay and fixed rate are the same
+        return scheduleAtFixedRate(command, initialDelay, delay, unit);
+    }
+
+    private long dueIn(long delay, TimeUnit unit) {
+        return nowNanos + Math.max(0, unit.toNanos(delay));
+    }
+
+    private <V> VirtualTask<V> enqueue(VirtualTask<V> task) {
+        if (shutdown) {
+            throw new IllegalStateException("Scheduler is shut down");
+        }
+        queue.add(task);
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> pending = List.copyOf(queue);
+        queue.clear();
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && queue.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return isTerminated();
+    }
+
+    private class VirtualTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+        private final long seq = sequence++;
+        private final long periodNanos;
+        private long dueNanos;
+
+        VirtualTask(Callable<V> callable, long dueNanos, long periodNanos) {
+            super(callable);
+            this.dueNanos = dueNanos;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return periodNanos > 0;
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset()) {
+                dueNanos += periodNanos;
+                queue.add(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            queue.remove(this);
+            return cancelled;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - nowNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof VirtualTask<?> task) {
+                int byDue = Long.compare(dueNanos, task.dueNanos);
+                return byDue != 0 ? byDue : Long.compare(seq, task.seq);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
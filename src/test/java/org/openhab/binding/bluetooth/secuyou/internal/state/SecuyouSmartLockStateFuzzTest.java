@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.secuyou.internal.state;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Property based fuzzing of the status frame parser, seeded with the sample frames from
+ * {@link SecuyouSmartLockStateTest}. Random generators use fixed seeds so failures are reproducible. Per frame cost is
+ * measured by SecuyouSmartLockStateBenchmark in the jmh profile.
+ *
+ * @author Arne Seime - Initial contribution
+ */
+@NonNullByDefault
+public class SecuyouSmartLockStateFuzzTest {
+
+    private static final int ITERATIONS = 50_000;
+
+    @Test
+    void testMutatedFramesNeverThrow() {
+        Random random = new Random(0x5EC0);
+        SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+        long expectedMalformed = 0;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] frame = mutate(random, SecuyouSmartLockStateTest
+                    .sampleFrame(random.nextInt(SecuyouSmartLockStateTest.SAMPLE_STATUS_FRAMES.length)));
+            boolean wellFormed = frame.length >= SecuyouSmartLockState.LOCK_STATUS_MIN_LENGTH;
+
+            // Property: a frame is accepted if and only if it is long enough
+            assertEquals(wellFormed, state.setLockStatus(frame), () -> "Frame " + Arrays.toString(frame));
+            if (!wellFormed) {
+                expectedMalformed++;
+            }
+
+            // Property: decoded values are always defined
+            assertNotNull(state.getLockPosition());
+            assertNotNull(state.getBatteryStatus());
+            assertNotNull(state.getHandleState());
+        }
+        assertEquals(expectedMalformed, state.getMalformedFrameCount());
+    }
+
+    @Test
+    void testRandomLockStateFramesNeverThrow() {
+        Random random = new Random(0x5EC1);
+        SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] frame = new byte[random.nextInt(4)];
+            random.nextBytes(frame);
+            state.setLockState(frame);
+            state.setChallenge(frame);
+
+            // Property: device state never becomes undefined, even for unknown values
+            assertNotNull(state.getDeviceState());
+        }
+    }
+
+    @Test
+    void testValidFramesDecodeIndependentlyOfTrailingBytes() {
+        Random random = new Random(0x5EC2);
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] frame = new byte[SecuyouSmartLockState.LOCK_STATUS_MIN_LENGTH + random.nextInt(32)];
+            random.nextBytes(frame);
+            byte[] header = Arrays.copyOf(frame, SecuyouSmartLockState.LOCK_STATUS_MIN_LENGTH);
+
+            SecuyouSmartLockState withTrailer = new SecuyouSmartLockState(false);
+            SecuyouSmartLockState headerOnly = new SecuyouSmartLockState(false);
+            withTrailer.setLockStatus(frame);
+            headerOnly.setLockStatus(header);
+
+            assertEquals(headerOnly.toString(), withTrailer.toString());
+        }
+    }
+
+    private static byte[] mutate(Random random, byte[] seed) {
+        switch (random.nextInt(5)) {
+            case 0: // truncate
+                return Arrays.copyOf(seed, random.nextInt(seed.length + 1));
+            case 1: // extend with garbage
+                byte[] extended = Arrays.copyOf(seed, seed.length + random.nextInt(64));
+                for (int i = seed.length; i < extended.length; i++) {
+                    extended[i] = (byte) random.nextInt();
+                }
+                return extended;
+            case 2: // flip bits
+                byte[] flipped = seed.clone();
+                for (int i = 0; i < 1 + random.nextInt(8); i++) {
+                    int index = random.nextInt(flipped.length);
+                    flipped[index] ^= (byte) (1 << random.nextInt(8));
+                }
+                return flipped;
+            case 3: // random bytes
+                byte[] garbage = new byte[random.nextInt(24)];
+                random.nextBytes(garbage);
+                return garbage;
+            default:
+                return seed;
+        }
+    }
+}
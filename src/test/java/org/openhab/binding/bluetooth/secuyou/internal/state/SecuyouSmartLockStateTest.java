@@ -13,6 +13,11 @@
 package org.openhab.binding.bluetooth.secuyou.internal.state;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
 
 import javax.xml.bind.DatatypeConverter;
 
@@ -27,6 +32,15 @@ import org.junit.jupiter.api.Test;
 @NonNullByDefault
 public class SecuyouSmartLockStateTest {
 
+    // LOCK POSITION - PINCODE_CORRECT - BATTERY - HANDLE_POS - HOMELOCK/RESQUE_HPR
+    static final String[] SAMPLE_STATUS_FRAMES = { "00-10-00-02-01-00-F6BB62426A41B2AA236A",
+            "00-10-00-01-01-00-F6BB62426A41B2AA236A", "02-10-00-01-01-00-F6BB62426A41B2AA236A",
+            "00-10-00-01-03-00-5B67DC7AA78381F2AD3D" };
+
+    static byte[] sampleFrame(int index) {
+        return DatatypeConverter.parseHexBinary(SAMPLE_STATUS_FRAMES[index].replace("-", ""));
+    }
+
     @Test
     void testGenerateChallengeResponse() {
         byte[] challenge = DatatypeConverter.parseHexBinary("FCE8C4904CF87611BE3A79B75CC24650");
@@ -40,24 +54,89 @@ public class SecuyouSmartLockStateTest {
 
     @Test
     void testParseStrangeStates() {
-        // LOCK POSITION - PINCODE_CORRECT - BATTERY - HANDLE_POS - HOMELOCK/RESQUE_HPR
-
-        byte[] firstUpdate = DatatypeConverter
-                .parseHexBinary("00-10-00-02-01-00-F6BB62426A41B2AA236A".replace("-", ""));
         SecuyouSmartLockState state = new SecuyouSmartLockState(false);
-        state.setLockStatus(firstUpdate);
+        state.setLockStatus(sampleFrame(0));
 
         // next
-        byte[] secondUpdate = DatatypeConverter
-                .parseHexBinary("00-10-00-01-01-00-F6BB62426A41B2AA236A".replace("-", ""));
-        state.setLockStatus(secondUpdate);
+        state.setLockStatus(sampleFrame(1));
 
         // undefined lock state
-        byte[] thirdUpdate = DatatypeConverter
-                .parseHexBinary("02-10-00-01-01-00-F6BB62426A41B2AA236A".replace("-", ""));
-        state.setLockStatus(thirdUpdate);
+        state.setLockStatus(sampleFrame(2));
+
+        state.setLockStatus(sampleFrame(3));
+    }
+
+    @Test
+    void testMalformedFramesAreCountedNotThrown() {
+        SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+        assertTrue(state.setLockStatus(sampleFrame(1)));
+        assertTrue(state.isPinCodeCorrect());
+
+        assertFalse(state.setLockStatus(new byte[] { 1, 16, 0 }));
+        assertFalse(state.setLockStatus(new byte[0]));
+        assertFalse(state.setLockState(new byte[0]));
+        assertFalse(state.setLockState(new byte[] { 42 }));
+        assertFalse(state.setChallenge(new byte[] { 1, 2, 3 }));
+
+        assertEquals(5, state.getMalformedFrameCount());
+        // Last good frame is kept
+        assertEquals(LockingMechanismPosition.UNLOCKED, state.getLockPosition());
+        assertEquals(HandleState.CLOSED, state.getHandleState());
+        assertEquals(DeviceState.KEY_GENERATION, state.getDeviceState());
+    }
+
+    @Test
+    void testTransitionEvents() {
+        SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+        // Baseline: locked, battery good, handle closed, home lock off
+        state.setLockStatus(new byte[] { 1, 16, 0, 1, 0 });
+        assertTrue(state.getEvents().isEmpty());
+
+        state.setLockStatus(new byte[] { 1, 16, 0, 2, 0 });
+        assertEquals(EnumSet.of(LockEvent.HANDLE_OPENED_WHILE_LOCKED), state.getEvents());
+
+        // Bolt moving is not an event, settling on the other position is
+        state.setLockStatus(new byte[] { 2, 16, 0, 1, 0 });
+        assertEquals(EnumSet.of(LockEvent.HANDLE_CLOSED), state.getEvents());
+        state.setLockStatus(new byte[] { 0, 16, 1, 1, 1 });
+        assertEquals(EnumSet.of(LockEvent.UNLOCKED, LockEvent.HOME_LOCK_ENABLED, LockEvent.BATTERY_LOW),
+                state.getEvents());
+
+        // Same status again, and battery getting better, is nothing
+        state.setLockStatus(new byte[] { 0, 16, 0, 1, 1 });
+        assertTrue(state.getEvents().isEmpty());
+
+        // First frame after a reconnect is a new baseline
+        state.reset(false);
+        state.setLockStatus(new byte[] { 1, 16, 3, 2, 0 });
+        assertTrue(state.getEvents().isEmpty());
+    }
+
+    @Test
+    void testTrailerTokenIsSessionNotCounter() {
+        SecuyouSmartLockState state = new SecuyouSmartLockState(false);
+        state.setLockStatus(sampleFrame(0));
+        assertFalse(state.isTrailerTokenChanged());
+
+        // Position and handle change, token stays the same
+        state.setLockStatus(sampleFrame(1));
+        assertFalse(state.isTrailerTokenChanged());
+        state.setLockStatus(sampleFrame(2));
+        assertFalse(state.isTrailerTokenChanged());
+
+        // Home lock enabled, the lock issues a new token along with it
+        state.setLockStatus(sampleFrame(3));
+        assertFalse(state.isTrailerTokenChanged());
+
+        // New token without a mode change
+        byte[] newSession = sampleFrame(3);
+        newSession[SecuyouSmartLockState.TRAILER_TOKEN_OFFSET] ^= 0x01;
+        state.setLockStatus(newSession);
+        assertTrue(state.isTrailerTokenChanged());
 
-        byte[] fourth = DatatypeConverter.parseHexBinary("00-10-00-01-03-00-5B67DC7AA78381F2AD3D".replace("-", ""));
-        state.setLockStatus(fourth);
+        // First frame after a reconnect has nothing to compare with
+        state.reset(false);
+        state.setLockStatus(sampleFrame(0));
+        assertFalse(state.isTrailerTokenChanged());
     }
 }